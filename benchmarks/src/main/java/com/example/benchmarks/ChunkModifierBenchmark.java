@@ -0,0 +1,83 @@
+package com.example.benchmarks;
+
+import com.example.world.ChunkModifier;
+import com.example.testsupport.FakeChunk;
+import com.example.testsupport.FakeSectionedChunk;
+import com.hypixel.hytale.world.block.BlockType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cube operations in ChunkModifier, from a single block up to a full chunk.
+ *
+ * Each invocation alternates between two block types so every call
+ * actually changes the blocks it writes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChunkModifierBenchmark {
+
+    /** Number of blocks in the cube: 1x1x1, 4x4x4, 8x8x8, 16x16x16 and 16x256x16. */
+    @Param({"1", "64", "512", "4096", "65536"})
+    public int blocks;
+
+    /** plain: per-block BlockAccessor only; sectioned: also SectionedBlockAccessor. */
+    @Param({"plain", "sectioned"})
+    public String storage;
+
+    private FakeChunk chunk;
+    private int sizeX;
+    private int sizeY;
+    private int sizeZ;
+    private boolean flip;
+
+    @Setup
+    public void setup() {
+        chunk = "sectioned".equals(storage) ? new FakeSectionedChunk(0, 0) : new FakeChunk(0, 0);
+
+        switch (blocks) {
+            case 1 -> { sizeX = 1; sizeY = 1; sizeZ = 1; }
+            case 64 -> { sizeX = 4; sizeY = 4; sizeZ = 4; }
+            case 512 -> { sizeX = 8; sizeY = 8; sizeZ = 8; }
+            case 4096 -> { sizeX = 16; sizeY = 16; sizeZ = 16; }
+            default -> { sizeX = 16; sizeY = 256; sizeZ = 16; }
+        }
+    }
+
+    @Benchmark
+    public int fillCube() {
+        return ChunkModifier.fillCube(chunk, 0, 0, 0, sizeX - 1, sizeY - 1, sizeZ - 1, nextType());
+    }
+
+    /** Same volume shifted up one block, so no section is fully covered and the bulk path never applies. */
+    @Benchmark
+    public int fillCubeUnaligned() {
+        int minY = Math.min(1, 256 - sizeY);
+        return ChunkModifier.fillCube(chunk, 0, minY, 0, sizeX - 1, minY + sizeY - 1, sizeZ - 1, nextType());
+    }
+
+    @Benchmark
+    public int createHollowCube() {
+        return ChunkModifier.createHollowCube(chunk, 0, 0, 0, sizeX - 1, sizeY - 1, sizeZ - 1, nextType());
+    }
+
+    private BlockType nextType() {
+        flip = !flip;
+        return flip ? BlockType.STONE : BlockType.DIRT;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.benchmarks;
+
+import com.example.world.ChunkModifier;
+import com.example.world.HeightmapCache;
+import com.example.testsupport.FakeChunk;
+import com.example.testsupport.FakeWorld;
+import com.hypixel.hytale.world.Location;
+import com.hypixel.hytale.world.block.BlockType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Column scans and safe-location checks in ChunkModifier.
+ *
+ * The world is stone up to Y=63 with air above, so every column scan
+ * has to walk down through 192 air blocks to find the surface.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ColumnBenchmark {
+
+    private FakeWorld world;
+    private FakeChunk chunk;
+    private int column;
+
+    @Setup
+    public void setup() {
+        world = new FakeWorld(2, false);
+        for (int chunkX = -2; chunkX <= 2; chunkX++) {
+            for (int chunkZ = -2; chunkZ <= 2; chunkZ++) {
+                int x = chunkX << 4;
+                int z = chunkZ << 4;
+                ChunkModifier.fillCube(world.getChunkAt(chunkX, chunkZ), x, 0, z, x + 15, 63, z + 15,
+                        BlockType.STONE);
+            }
+        }
+        chunk = (FakeChunk) world.getChunkAt(0, 0);
+    }
+
+    /** Repeated queries over the same chunk, answered from the heightmap. */
+    @Benchmark
+    public int getHighestBlockAt() {
+        column = (column + 1) & 255;
+        return ChunkModifier.getHighestBlockAt(chunk, column & 15, column >> 4);
+    }
+
+    /** First query after the chunk's heightmap was dropped, which scans the column. */
+    @Benchmark
+    public int getHighestBlockAtUncached() {
+        HeightmapCache.shared().invalidate(chunk);
+        return ChunkModifier.getHighestBlockAt(chunk, 7, 7);
+    }
+
+    /** Clears a full column, then puts the stone back so the next call has work to do. */
+    @Benchmark
+    public int clearColumn() {
+        int cleared = ChunkModifier.clearColumn(chunk, 7, 7);
+        ChunkModifier.fillCube(chunk, 7, 0, 7, 7, 63, 7, BlockType.STONE);
+        return cleared;
+    }
+
+    @Benchmark
+    public boolean isSafeLocation() {
+        return ChunkModifier.isSafeLocation(chunk, 7, 64, 7);
+    }
+
+    /** Search starting deep underground, where no position is safe until the surface. */
+    @Benchmark
+    public Location findNearestSafeLocation() {
+        return ChunkModifier.findNearestSafeLocation(world, 7, 20, 7, 8);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.benchmarks;
+
+import com.example.commands.CommandExamplePlugin;
+import com.example.commands.TeleportCommand;
+import com.example.world.SetBlockCommand;
+import com.example.world.WorldExamplePlugin;
+import com.example.testsupport.FakeCommandContext;
+import com.example.testsupport.FakeCommandRegistry;
+import com.example.testsupport.FakeEventBus;
+import com.example.testsupport.FakePlayer;
+import com.example.testsupport.FakeWorld;
+import com.hypixel.hytale.event.EventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full execute() calls for the commands builders run most: argument
+ * parsing, the block change or queuing the teleport, and the reply message.
+ *
+ * Invalid-input variants measure the error paths. Malformed numbers are
+ * rejected by the argument schema and unknown block types by the
+ * BlockTypeResolver, neither of which throws.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CommandBenchmark {
+
+    private CommandExamplePlugin commandPlugin;
+    private WorldExamplePlugin worldPlugin;
+    private SetBlockCommand setBlock;
+    private TeleportCommand teleport;
+    private FakeCommandContext setBlockValid;
+    private FakeCommandContext setBlockUnknownType;
+    private FakeCommandContext teleportValid;
+    private FakeCommandContext teleportInvalid;
+
+    @Setup
+    public void setup() {
+        FakeWorld world = new FakeWorld(1, false);
+        FakePlayer player = new FakePlayer(world);
+
+        // Enable the plugins so the commands get their log pipelines
+        FakeCommandRegistry commands = new FakeCommandRegistry();
+        FakeEventBus eventBus = new FakeEventBus();
+        commandPlugin = new CommandExamplePlugin() {
+            {
+                commandRegistry = commands;
+            }
+
+            @Override
+            public EventBus getEventRegistry() {
+                return eventBus;
+            }
+        };
+        worldPlugin = new WorldExamplePlugin() {
+            {
+                commandRegistry = commands;
+            }
+        };
+        commandPlugin.setup();
+        worldPlugin.setup();
+
+        setBlock = (SetBlockCommand) commands.getCommand("setblock");
+        teleport = (TeleportCommand) commands.getCommand("teleport");
+
+        setBlockValid = new FakeCommandContext(player,
+                Map.of("x", "5", "y", "64", "z", "-3", "blockType", "stone"));
+        setBlockUnknownType = new FakeCommandContext(player,
+                Map.of("x", "5", "y", "64", "z", "-3", "blockType", "stoen"));
+        teleportValid = new FakeCommandContext(player,
+                Map.of("x", "100.5", "y", "64", "z", "-20.25"));
+        teleportInvalid = new FakeCommandContext(player,
+                Map.of("x", "100.5", "y", "sixty-four", "z", "-20.25"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        worldPlugin.teardown();
+        commandPlugin.teardown();
+    }
+
+    @Benchmark
+    public void setBlock() {
+        setBlock.execute(setBlockValid);
+    }
+
+    @Benchmark
+    public void setBlockUnknownType() {
+        setBlock.execute(setBlockUnknownType);
+    }
+
+    @Benchmark
+    public void teleport() {
+        teleport.execute(teleportValid);
+    }
+
+    @Benchmark
+    public void teleportInvalidNumber() {
+        teleport.execute(teleportInvalid);
+    }
+}
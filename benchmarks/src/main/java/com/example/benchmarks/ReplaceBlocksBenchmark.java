@@ -0,0 +1,79 @@
+package com.example.benchmarks;
+
+import com.example.world.ChunkModifier;
+import com.example.testsupport.FakeChunk;
+import com.example.testsupport.FakeSectionedChunk;
+import com.hypixel.hytale.world.block.BlockType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChunkModifier.replaceBlocks on chunks where the replaced type is rare or common.
+ *
+ * The chunk is stone below Y=64 and air above. Sparse puts a handful of
+ * ore blocks in one section; dense turns every other stone block into
+ * ore. Invocations alternate between ore and gravel so the chunk never
+ * runs out of blocks to replace.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReplaceBlocksBenchmark {
+
+    @Param({"sparse", "dense"})
+    public String density;
+
+    @Param({"plain", "sectioned"})
+    public String storage;
+
+    private FakeChunk chunk;
+    private boolean flip;
+
+    @Setup
+    public void setup() {
+        chunk = "sectioned".equals(storage) ? new FakeSectionedChunk(0, 0) : new FakeChunk(0, 0);
+        ChunkModifier.fillCube(chunk, 0, 0, 0, 15, 63, 15, BlockType.STONE);
+
+        if ("sparse".equals(density)) {
+            for (int i = 0; i < 8; i++) {
+                chunk.setBlock(i, 10, i, BlockType.DIAMOND_ORE);
+            }
+        } else {
+            for (int y = 0; y < 64; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = (y + z) & 1; x < 16; x += 2) {
+                        chunk.setBlock(x, y, z, BlockType.DIAMOND_ORE);
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int replaceBlocks() {
+        flip = !flip;
+        return flip
+                ? ChunkModifier.replaceBlocks(chunk, BlockType.DIAMOND_ORE, BlockType.GRAVEL)
+                : ChunkModifier.replaceBlocks(chunk, BlockType.GRAVEL, BlockType.DIAMOND_ORE);
+    }
+
+    /** Nothing in the chunk matches, the common case in terrain-cleanup jobs. */
+    @Benchmark
+    public int replaceBlocksAbsent() {
+        return ChunkModifier.replaceBlocks(chunk, BlockType.SAND, BlockType.GRAVEL);
+    }
+}
@@ -1,8 +1,17 @@
 package com.example.commands;
 
+import com.example.common.LogPipeline;
+import com.example.common.TickDriver;
+import com.hypixel.hytale.event.EventBus;
+import com.hypixel.hytale.event.player.PlayerJoinEvent;
+import com.hypixel.hytale.event.player.PlayerMoveEvent;
+import com.hypixel.hytale.event.player.PlayerQuitEvent;
 import com.hypixel.hytale.plugin.PluginBase;
 import com.hypixel.hytale.plugin.commands.CommandRegistry;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Main plugin class for Command Example mod.
  *
@@ -13,12 +22,45 @@ import com.hypixel.hytale.plugin.commands.CommandRegistry;
  */
 public class CommandExamplePlugin extends PluginBase {
 
+    private LogPipeline logPipeline;
+    private ExecutorService chunkLoader;
+    private TickDriver tickDriver;
+    private TeleportPipeline teleportPipeline;
+    private PlayerNameIndex playerNames;
+
     /**
      * Called when the plugin is loaded and enabled.
      * This is where you register commands, event listeners, and perform initialization.
      */
     @Override
     public void setup() {
+        // Commands log through a background pipeline instead of on the game thread
+        logPipeline = new LogPipeline(this, "CommandExample");
+
+        // Teleports load their target chunks in the background, then the player is moved
+        // from the next move or join event on the game thread (the API has no other way onto it),
+        // or, off the game thread, by the tick driver if no event comes along within a couple of ticks
+        chunkLoader = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "CommandExample-chunk-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        TeleportPipeline teleports = new TeleportPipeline(chunkLoader);
+        teleportPipeline = teleports;
+        tickDriver = new TickDriver(this, "CommandExample-teleports", teleports::tick);
+
+        // Commands find players by name through an index kept up to date by join and quit events
+        // Handlers use local copies, so events after teardown don't touch a cleared field
+        PlayerNameIndex names = new PlayerNameIndex();
+        playerNames = names;
+        EventBus eventBus = getEventRegistry();
+        eventBus.register(PlayerJoinEvent.class, event -> {
+            names.add(event.getPlayer());
+            teleports.runReady();
+        });
+        eventBus.register(PlayerQuitEvent.class, event -> names.remove(event.getPlayer()));
+        eventBus.register(PlayerMoveEvent.class, event -> teleports.runReady());
+
         // Get the command registry - this is used to register all commands
         CommandRegistry commandRegistry = this.commandRegistry;
 
@@ -40,5 +82,55 @@ public class CommandExamplePlugin extends PluginBase {
     @Override
     public void teardown() {
         getLogger().info("Command Example mod unloading...");
+
+        // Wait for a running tick, then fail teleports that haven't happened
+        if (tickDriver != null) {
+            tickDriver.close();
+            tickDriver = null;
+        }
+        if (teleportPipeline != null) {
+            teleportPipeline.close();
+            teleportPipeline = null;
+        }
+        // Queued lookups still run, so the teleports waiting on them are failed rather than left hanging
+        if (chunkLoader != null) {
+            chunkLoader.shutdown();
+            chunkLoader = null;
+        }
+
+        playerNames = null;
+
+        // Write out any queued log lines and stop the pipeline thread
+        if (logPipeline != null) {
+            logPipeline.close();
+            logPipeline = null;
+        }
+    }
+
+    /**
+     * Gets the pipeline commands use for their routine log lines.
+     *
+     * @return The log pipeline, or null before setup
+     */
+    public LogPipeline getLogPipeline() {
+        return logPipeline;
+    }
+
+    /**
+     * Gets the pipeline /teleport uses to load chunks before moving players.
+     *
+     * @return The teleport pipeline, or null before setup
+     */
+    public TeleportPipeline getTeleportPipeline() {
+        return teleportPipeline;
+    }
+
+    /**
+     * Gets the index commands use to find online players by name.
+     *
+     * @return The player name index, or null before setup
+     */
+    public PlayerNameIndex getPlayerNames() {
+        return playerNames;
     }
 }
@@ -1,40 +1,77 @@
 package com.example.commands;
 
-import com.hypixel.hytale.plugin.commands.AbstractCommand;
+import com.example.common.LogTemplate;
+import com.example.common.ArgumentSchema;
+import com.example.common.MessageTemplate;
+import com.example.common.ParsedArgs;
+import com.example.common.TypedCommand;
 import com.hypixel.hytale.plugin.commands.CommandContext;
 import com.hypixel.hytale.entity.player.Player;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * A simple command that sends a greeting message.
  *
  * Usage: /hello [player]
  * - If no player is specified, greets the command sender
- * - If a player name is provided, greets that player
+ * - If a player name is provided, greets that player; any unambiguous
+ *   start of an online player's name works, in any case
  *
  * This demonstrates:
- * - Extending AbstractCommand for synchronous command execution
- * - Using optional arguments with withOptionalArg()
+ * - Extending TypedCommand for synchronous command execution
+ * - Declaring an optional argument with an ArgumentSchema
  * - Accessing the command sender via CommandContext
+ * - Resolving a player argument through the plugin's PlayerNameIndex
  * - Sending formatted messages using Adventure Components
  *
  * See: https://hytale-docs.dev/classes/com.hypixel.hytale.plugin.commands.AbstractCommand.html
  * See: https://hytale-docs.dev/classes/com.hypixel.hytale.plugin.commands.CommandContext.html
  */
-public class HelloCommand extends AbstractCommand {
+public class HelloCommand extends TypedCommand {
+
+    private static final ArgumentSchema SCHEMA = ArgumentSchema.builder()
+            .optionalString("player")
+            .build();
+    private static final int PLAYER = SCHEMA.indexOf("player");
+
+    private static final LogTemplate GREETED_PLAYER = LogTemplate.info("{} used /hello to greet {}");
+    private static final LogTemplate GREETED_SELF = LogTemplate.info("{} used /hello");
+
+    // Greetings repeat for the same names, so rendered messages are cached
+    private static final MessageTemplate GREETING = MessageTemplate.builder()
+            .text("Hello, ", NamedTextColor.GREEN)
+            .slot(NamedTextColor.GREEN)
+            .text("!", NamedTextColor.GREEN)
+            .cached(256)
+            .build();
+    private static final MessageTemplate UNKNOWN_PLAYER = MessageTemplate.builder()
+            .text("No online player matches ", NamedTextColor.RED)
+            .slot(NamedTextColor.RED)
+            .build();
+    private static final MessageTemplate AMBIGUOUS_PLAYER = MessageTemplate.builder()
+            .text("More than one player matches ", NamedTextColor.RED)
+            .slot(NamedTextColor.RED)
+            .text("\nDid you mean: ", NamedTextColor.GRAY)
+            .slot(NamedTextColor.GRAY)
+            .text("?", NamedTextColor.GRAY)
+            .build();
+
+    /** Names listed when a prefix matches several players. */
+    private static final int MAX_SUGGESTIONS = 5;
 
     private final CommandExamplePlugin plugin;
 
     public HelloCommand(CommandExamplePlugin plugin) {
         // Call parent constructor with command name and optional description
-        super("hello", "Sends a friendly greeting");
-        this.plugin = plugin;
-
-        // Define an optional argument for target player name
+        // The schema's optional "player" argument is registered with withOptionalArg()
         // The string "player" is the argument name shown in help/usage
         // See: https://hytale-docs.dev/classes/com.hypixel.hytale.plugin.commands.AbstractCommand.html#withOptionalArg
-        withOptionalArg("player");
+        super("hello", "Sends a friendly greeting", SCHEMA);
+        this.plugin = plugin;
     }
 
     /**
@@ -44,31 +81,53 @@ public class HelloCommand extends AbstractCommand {
      *                - getSender(): Who executed the command
      *                - getArgs(): Map of argument names to their values
      *                - getServer(): Access to the server instance
+     * @param args The parsed arguments
      */
     @Override
-    public void execute(CommandContext context) {
+    protected void execute(CommandContext context, ParsedArgs args) {
         // Get the command sender (could be a Player or ConsoleCommandSender)
         var sender = context.getSender();
 
         // Check if an optional player argument was provided
-        String targetPlayerName = context.getArgs().get("player");
+        String targetPlayerName = args.getString(PLAYER);
+
+        if (targetPlayerName != null) {
+            // Find the online player the name refers to: an exact match, else the only one it starts
+            Player target = plugin.getPlayerNames().get(targetPlayerName);
+            if (target == null) {
+                List<Player> matches = new ArrayList<>(MAX_SUGGESTIONS);
+                plugin.getPlayerNames().complete(targetPlayerName, MAX_SUGGESTIONS, matches);
+                if (matches.size() != 1) {
+                    sender.sendMessage(matches.isEmpty()
+                            ? UNKNOWN_PLAYER.render(targetPlayerName)
+                            : AMBIGUOUS_PLAYER.render(targetPlayerName, joinNames(matches)));
+                    return;
+                }
+                target = matches.get(0);
+            }
 
-        if (targetPlayerName != null && !targetPlayerName.isEmpty()) {
-            // Greet the specified player
+            // Greet the specified player, spelled the way they spell it
             // Using Adventure Component API for rich text formatting
             // See: https://docs.advntr.dev/text.html
-            Component message = Component.text("Hello, " + targetPlayerName + "!")
-                    .color(NamedTextColor.GREEN);
-            sender.sendMessage(message);
+            sender.sendMessage(GREETING.render(target.getName()));
 
-            plugin.getLogger().info(sender.getName() + " used /hello to greet " + targetPlayerName);
+            plugin.getLogPipeline().begin(GREETED_PLAYER).arg(sender.getName()).arg(target.getName()).end();
         } else {
             // Greet the command sender
-            Component message = Component.text("Hello, " + sender.getName() + "!")
-                    .color(NamedTextColor.GREEN);
-            sender.sendMessage(message);
+            sender.sendMessage(GREETING.render(sender.getName()));
+
+            plugin.getLogPipeline().begin(GREETED_SELF).arg(sender.getName()).end();
+        }
+    }
 
-            plugin.getLogger().info(sender.getName() + " used /hello");
+    private static String joinNames(List<Player> players) {
+        StringBuilder names = new StringBuilder();
+        for (Player player : players) {
+            if (names.length() > 0) {
+                names.append(", ");
+            }
+            names.append(player.getName());
         }
+        return names.toString();
     }
 }
@@ -0,0 +1,193 @@
+package com.example.commands;
+
+import com.hypixel.hytale.entity.player.Player;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds online players by name, ignoring case.
+ *
+ * Names are kept in a trie whose nodes hold their child characters in a
+ * small sorted char array, so an exact lookup costs one short binary
+ * search per character of the name - independent of how many players are
+ * online - and a prefix lists its completions without scanning every
+ * name.
+ *
+ * The trie is immutable: {@link #add} and {@link #remove} copy the nodes on
+ * the changed name's path and publish a new root, so commands running on
+ * other threads read it without locking and always see a consistent set
+ * of names. Writers are serialized; they only happen on join and quit.
+ *
+ * Safe to read from any thread.
+ */
+public final class PlayerNameIndex {
+
+    private static final Node EMPTY = new Node(new char[0], new Node[0], null);
+
+    private volatile Node root = EMPTY;
+    private volatile int size;
+
+    /**
+     * Adds a player under their name, replacing any player with the same name.
+     *
+     * @param player The player, e.g. on join
+     */
+    public synchronized void add(Player player) {
+        String name = player.getName();
+        if (get(name) == null) {
+            size++;
+        }
+        root = put(root, name, 0, player);
+    }
+
+    /**
+     * Removes a player. Nothing happens if their name now belongs to a
+     * different player object, e.g. one that rejoined.
+     *
+     * @param player The player, e.g. on quit
+     * @return true if the player was removed
+     */
+    public synchronized boolean remove(Player player) {
+        String name = player.getName();
+        if (get(name) != player) {
+            return false;
+        }
+        Node updated = delete(root, name, 0);
+        root = updated == null ? EMPTY : updated;
+        size--;
+        return true;
+    }
+
+    /**
+     * Looks up a player by exact name, ignoring case.
+     *
+     * @param name The name
+     * @return The player, or null if no online player has that name
+     */
+    public Player get(CharSequence name) {
+        Node node = root;
+        for (int i = 0, length = name.length(); i < length && node != null; i++) {
+            node = node.child(fold(name.charAt(i)));
+        }
+        return node == null ? null : node.player;
+    }
+
+    /**
+     * Collects the players whose names start with a prefix, ignoring case.
+     * Names are visited in alphabetical order, so a name comes before the
+     * longer names it is a prefix of.
+     *
+     * @param prefix The start of the name (empty for every player)
+     * @param limit Most players to add
+     * @param into Receives the players found (the list is not cleared first)
+     * @return The number of players added
+     */
+    public int complete(CharSequence prefix, int limit, List<Player> into) {
+        Node node = root;
+        for (int i = 0, length = prefix.length(); i < length && node != null; i++) {
+            node = node.child(fold(prefix.charAt(i)));
+        }
+        return node == null || limit <= 0 ? 0 : collect(node, limit, into);
+    }
+
+    /**
+     * @return The number of players in the index
+     */
+    public int size() {
+        return size;
+    }
+
+    private static int collect(Node node, int limit, List<Player> into) {
+        int found = 0;
+        if (node.player != null) {
+            into.add(node.player);
+            found++;
+        }
+        for (int i = 0; i < node.children.length && found < limit; i++) {
+            found += collect(node.children[i], limit - found, into);
+        }
+        return found;
+    }
+
+    /** Returns a copy of node with player stored under name[depth..]. */
+    private static Node put(Node node, String name, int depth, Player player) {
+        if (depth == name.length()) {
+            return new Node(node.keys, node.children, player);
+        }
+
+        char key = fold(name.charAt(depth));
+        int index = Arrays.binarySearch(node.keys, key);
+        if (index >= 0) {
+            Node[] children = node.children.clone();
+            children[index] = put(children[index], name, depth + 1, player);
+            return new Node(node.keys, children, node.player);
+        }
+
+        // New child: insert it in sorted position
+        int insert = -index - 1;
+        int count = node.keys.length;
+        char[] keys = new char[count + 1];
+        Node[] children = new Node[count + 1];
+        System.arraycopy(node.keys, 0, keys, 0, insert);
+        System.arraycopy(node.children, 0, children, 0, insert);
+        System.arraycopy(node.keys, insert, keys, insert + 1, count - insert);
+        System.arraycopy(node.children, insert, children, insert + 1, count - insert);
+        keys[insert] = key;
+        children[insert] = put(EMPTY, name, depth + 1, player);
+        return new Node(keys, children, node.player);
+    }
+
+    /** Returns a copy of node without name[depth..], or null if nothing would be left in it. */
+    private static Node delete(Node node, String name, int depth) {
+        if (depth == name.length()) {
+            return node.keys.length == 0 ? null : new Node(node.keys, node.children, null);
+        }
+
+        int index = Arrays.binarySearch(node.keys, fold(name.charAt(depth)));
+        Node child = delete(node.children[index], name, depth + 1);
+        if (child != null) {
+            Node[] children = node.children.clone();
+            children[index] = child;
+            return new Node(node.keys, children, node.player);
+        }
+
+        // The child is gone: drop its entry, and this node too if it is now empty
+        int count = node.keys.length - 1;
+        if (count == 0 && node.player == null) {
+            return null;
+        }
+        char[] keys = new char[count];
+        Node[] children = new Node[count];
+        System.arraycopy(node.keys, 0, keys, 0, index);
+        System.arraycopy(node.children, 0, children, 0, index);
+        System.arraycopy(node.keys, index + 1, keys, index, count - index);
+        System.arraycopy(node.children, index + 1, children, index, count - index);
+        return new Node(keys, children, node.player);
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(c);
+    }
+
+    /**
+     * One trie node; never modified once published.
+     */
+    private static final class Node {
+
+        final char[] keys;
+        final Node[] children;
+        final Player player;
+
+        Node(char[] keys, Node[] children, Player player) {
+            this.keys = keys;
+            this.children = children;
+            this.player = player;
+        }
+
+        Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index < 0 ? null : children[index];
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.example.commands;
 
-import com.hypixel.hytale.plugin.commands.AbstractCommand;
+import com.example.common.LogPipeline;
+import com.example.common.LogTemplate;
+import com.example.common.ArgumentSchema;
+import com.example.common.MessageTemplate;
+import com.example.common.ParsedArgs;
+import com.example.common.TypedCommand;
 import com.hypixel.hytale.plugin.commands.CommandContext;
 import com.hypixel.hytale.entity.player.Player;
 import com.hypixel.hytale.world.Location;
@@ -15,78 +20,121 @@ import net.kyori.adventure.text.format.NamedTextColor;
  * - Only works when executed by a player (not console)
  *
  * This demonstrates:
- * - Using required arguments with withRequiredArg()
- * - Parsing numeric arguments
+ * - Declaring typed required arguments with an ArgumentSchema
+ * - Reading parsed numeric arguments
  * - Validating the command sender type
- * - Manipulating player location
+ * - Manipulating player location, after loading the target chunks in the background
  * - Error handling and user feedback
  *
  * See: https://hytale-docs.dev/classes/com.hypixel.hytale.plugin.commands.AbstractCommand.html
  * See: https://hytale-docs.dev/classes/com.hypixel.hytale.world.Location.html
  */
-public class TeleportCommand extends AbstractCommand {
+public class TeleportCommand extends TypedCommand {
+
+    // Coordinates are parsed once into doubles; the indexes are resolved here, not per call
+    private static final ArgumentSchema SCHEMA = ArgumentSchema.builder()
+            .requiredDouble("x")
+            .requiredDouble("y")
+            .requiredDouble("z")
+            .build();
+    private static final int X = SCHEMA.indexOf("x");
+    private static final int Y = SCHEMA.indexOf("y");
+    private static final int Z = SCHEMA.indexOf("z");
+
+    private static final LogTemplate TELEPORTED = LogTemplate.info("{} teleported to {}, {}, {}");
+
+    // Replies are built once; only the coordinates are filled in per call
+    private static final MessageTemplate TELEPORTED_MESSAGE = MessageTemplate.builder()
+            .text("Teleported to ", NamedTextColor.GREEN)
+            .slot(NamedTextColor.YELLOW)
+            .text(", ", NamedTextColor.YELLOW)
+            .slot(NamedTextColor.YELLOW)
+            .text(", ", NamedTextColor.YELLOW)
+            .slot(NamedTextColor.YELLOW)
+            .build();
+    private static final Component PLAYERS_ONLY = Component.text("This command can only be used by players!")
+            .color(NamedTextColor.RED);
+    private static final Component INVALID_COORDINATES =
+            Component.text("Invalid coordinates! Please provide numeric values.")
+                    .color(NamedTextColor.RED);
 
     private final CommandExamplePlugin plugin;
 
     public TeleportCommand(CommandExamplePlugin plugin) {
-        super("teleport", "Teleports you to the specified coordinates");
-        this.plugin = plugin;
-
-        // Define three required arguments for X, Y, Z coordinates
+        // TypedCommand registers the schema's X, Y, Z arguments with withRequiredArg()
         // Required arguments must be provided or the command will show usage help
         // See: https://hytale-docs.dev/classes/com.hypixel.hytale.plugin.commands.AbstractCommand.html#withRequiredArg
-        withRequiredArg("x");
-        withRequiredArg("y");
-        withRequiredArg("z");
+        super("teleport", "Teleports you to the specified coordinates", SCHEMA);
+        this.plugin = plugin;
+    }
+
+    @Override
+    protected void onInvalidArgument(CommandContext context, int index) {
+        // Handle invalid number format
+        context.getSender().sendMessage(INVALID_COORDINATES);
     }
 
     @Override
-    public void execute(CommandContext context) {
+    protected void execute(CommandContext context, ParsedArgs args) {
         var sender = context.getSender();
 
         // Check if the sender is a player (console can't be teleported)
         if (!(sender instanceof Player player)) {
-            sender.sendMessage(Component.text("This command can only be used by players!")
-                    .color(NamedTextColor.RED));
+            sender.sendMessage(PLAYERS_ONLY);
             return;
         }
 
-        try {
-            // Parse the coordinate arguments
-            // getArgs() returns a Map<String, String> of argument names to values
-            double x = Double.parseDouble(context.getArgs().get("x"));
-            double y = Double.parseDouble(context.getArgs().get("y"));
-            double z = Double.parseDouble(context.getArgs().get("z"));
+        // The coordinates were parsed from getArgs() before this is called
+        double x = args.getDouble(X);
+        double y = args.getDouble(Y);
+        double z = args.getDouble(Z);
 
-            // Get the player's current world and create a new location
-            // Location represents a position in the world with X, Y, Z coordinates
-            // See: https://hytale-docs.dev/classes/com.hypixel.hytale.world.Location.html
-            Location currentLocation = player.getLocation();
-            Location newLocation = new Location(currentLocation.getWorld(), x, y, z);
+        // Get the player's current world and create a new location
+        // Location represents a position in the world with X, Y, Z coordinates
+        // See: https://hytale-docs.dev/classes/com.hypixel.hytale.world.Location.html
+        Location currentLocation = player.getLocation();
+        Location newLocation = new Location(currentLocation.getWorld(), x, y, z);
 
-            // Teleport the player to the new location
-            // See: https://hytale-docs.dev/classes/com.hypixel.hytale.entity.player.Player.html#teleport
-            player.teleport(newLocation);
+        // The reply may come after the plugin is disabled, when getLogPipeline() returns null
+        LogPipeline logs = plugin.getLogPipeline();
+
+        // Teleport the player once the target chunks are loaded
+        // The pipeline loads them in the background and moves the player once they're ready,
+        // usually from the game thread, possibly to a safe Y nearby, so this doesn't stall it
+        // See: https://hytale-docs.dev/classes/com.hypixel.hytale.entity.player.Player.html#teleport
+        plugin.getTeleportPipeline().teleport(player, newLocation).whenComplete((location, error) -> {
+            if (error != null) {
+                // Handle any errors during teleportation
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                sender.sendMessage(Component.text("Failed to teleport: " + cause.getMessage())
+                        .color(NamedTextColor.RED));
+                plugin.getLogger().error("Teleport command error", cause);
+                return;
+            }
 
             // Send success message
-            Component message = Component.text("Teleported to ")
-                    .color(NamedTextColor.GREEN)
-                    .append(Component.text(String.format("%.1f, %.1f, %.1f", x, y, z))
-                            .color(NamedTextColor.YELLOW));
-            player.sendMessage(message);
-
-            plugin.getLogger().info(player.getName() + " teleported to " + x + ", " + y + ", " + z);
-
-        } catch (NumberFormatException e) {
-            // Handle invalid number format
-            sender.sendMessage(Component.text("Invalid coordinates! Please provide numeric values.")
-                    .color(NamedTextColor.RED));
-
-        } catch (Exception e) {
-            // Handle any other errors during teleportation
-            sender.sendMessage(Component.text("Failed to teleport: " + e.getMessage())
-                    .color(NamedTextColor.RED));
-            plugin.getLogger().error("Teleport command error", e);
+            player.sendMessage(TELEPORTED_MESSAGE.render(formatCoordinate(location.getX()),
+                    formatCoordinate(location.getY()), formatCoordinate(location.getZ())));
+
+            // Queued for the log thread - no string building on the game thread
+            logs.begin(TELEPORTED).arg(player.getName())
+                    .arg(location.getX()).arg(location.getY()).arg(location.getZ()).end();
+        });
+    }
+
+    /**
+     * Formats a coordinate with one decimal place, like String.format("%.1f")
+     * but without parsing a format string on every call.
+     */
+    private static String formatCoordinate(double value) {
+        if (!Double.isFinite(value) || Math.abs(value) >= 1e15) {
+            return String.format("%.1f", value);
+        }
+        long tenths = Math.round(Math.abs(value) * 10);
+        StringBuilder text = new StringBuilder(24);
+        if (Double.doubleToRawLongBits(value) < 0) {
+            text.append('-');  // Includes -0.0, as %.1f does
         }
+        return text.append(tenths / 10).append('.').append(tenths % 10).toString();
     }
 }
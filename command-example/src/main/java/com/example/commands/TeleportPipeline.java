@@ -0,0 +1,244 @@
+package com.example.commands;
+
+import com.example.common.SafeLocations;
+import com.hypixel.hytale.entity.player.Player;
+import com.hypixel.hytale.world.Location;
+import com.hypixel.hytale.world.World;
+import com.hypixel.hytale.world.chunk.WorldChunk;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Teleports players only once the chunks around their target are loaded.
+ *
+ * {@link #teleport} looks up the target chunk and a ring of neighbours on
+ * a background executor, so a long-distance teleport doesn't load chunks
+ * on the game thread. Requests for the same chunk within about a second
+ * share one lookup, so moving 200 players to one arena loads each chunk
+ * once. When all of a teleport's chunks are ready it is queued, and
+ * {@link #runReady()} performs it - optionally moved to the closest safe
+ * Y in the target column - and completes its future.
+ *
+ * The server API has no way to schedule work on the game thread, so
+ * runReady() is meant to be called from game-thread event handlers
+ * (CommandExamplePlugin calls it on every PlayerMoveEvent and
+ * PlayerJoinEvent). Teleports are therefore only guaranteed to happen on
+ * the game thread while events keep arriving. {@link #tick()} runs on a
+ * timer thread: it expires shared lookups and, as a fallback, performs
+ * any teleport that has waited {@value #GAME_THREAD_GRACE_TICKS} ticks
+ * without an event coming along. Those teleports - player.teleport and
+ * the completion of their futures - run on the timer thread, OFF the
+ * game thread; this is the price of not leaving a teleport hanging on a
+ * server where nobody is moving or joining.
+ *
+ * Chunk lookups call World.getChunkAt on the loader executor. The API
+ * doesn't say whether that is safe off the game thread; on a server where
+ * it isn't, pass an executor that runs on the server's chunk loading
+ * thread instead.
+ *
+ * Teleports can be requested from any thread.
+ */
+public final class TeleportPipeline {
+
+    /** Neighbouring chunks loaded on each side of the target chunk. */
+    public static final int DEFAULT_RING = 1;
+
+    /** Blocks above and below the requested Y searched for a safe spot. */
+    public static final int SAFE_Y_SEARCH = 16;
+
+    /** Ticks a finished chunk lookup is reused for before teleports look the chunk up again. */
+    private static final int LOAD_REUSE_TICKS = 20;
+
+    /** Ticks a ready teleport waits for {@link #runReady()} before {@link #tick()} performs it. */
+    public static final int GAME_THREAD_GRACE_TICKS = 2;
+
+    private final Executor loader;
+    private final int ring;
+    private final boolean adjustToSafeY;
+
+    /** Recent chunk lookups, shared by every teleport that needs them. */
+    private final Map<ChunkRequest, Load> loads = new ConcurrentHashMap<>();
+    private final Queue<PendingTeleport> ready = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder chunkLoads = new LongAdder();
+    private final LongAdder chunkRequests = new LongAdder();
+
+    private volatile boolean closed;
+    private volatile long ticks;
+
+    /**
+     * Creates a pipeline that loads one ring of neighbours and adjusts to a safe Y.
+     *
+     * @param loader Runs the chunk lookups off the game thread
+     */
+    public TeleportPipeline(Executor loader) {
+        this(loader, DEFAULT_RING, true);
+    }
+
+    /**
+     * @param loader Runs the chunk lookups off the game thread
+     * @param ring Neighbouring chunks to load on each side of the target (0 for just the target)
+     * @param adjustToSafeY Whether to move the player to the closest safe Y in the target column
+     */
+    public TeleportPipeline(Executor loader, int ring, boolean adjustToSafeY) {
+        if (ring < 0) {
+            throw new IllegalArgumentException("ring must be >= 0: " + ring);
+        }
+        this.loader = loader;
+        this.ring = ring;
+        this.adjustToSafeY = adjustToSafeY;
+    }
+
+    /**
+     * Starts a teleport.
+     *
+     * @param player The player to move
+     * @param target Where to move them
+     * @return A future completed with the location actually used, on the thread that performs
+     *         the teleport (see the class comment)
+     */
+    public CompletableFuture<Location> teleport(Player player, Location target) {
+        CompletableFuture<Location> done = new CompletableFuture<>();
+        if (closed) {
+            done.completeExceptionally(new IllegalStateException("Teleport pipeline is closed"));
+            return done;
+        }
+
+        World world = target.getWorld();
+        int centerX = (int) Math.floor(target.getX()) >> 4;
+        int centerZ = (int) Math.floor(target.getZ()) >> 4;
+
+        CompletableFuture<WorldChunk> targetChunk = load(world, centerX, centerZ);
+        CompletableFuture<?>[] chunks = new CompletableFuture<?>[(2 * ring + 1) * (2 * ring + 1)];
+        int count = 0;
+        for (int dx = -ring; dx <= ring; dx++) {
+            for (int dz = -ring; dz <= ring; dz++) {
+                chunks[count++] = dx == 0 && dz == 0 ? targetChunk : load(world, centerX + dx, centerZ + dz);
+            }
+        }
+
+        CompletableFuture.allOf(chunks).whenComplete((ignored, error) -> {
+            if (error != null) {
+                done.completeExceptionally(error);
+                return;
+            }
+            if (closed) {
+                // Lookups still in flight when the pipeline closed
+                done.completeExceptionally(new IllegalStateException("Teleport pipeline is closed"));
+                return;
+            }
+            PendingTeleport pending = new PendingTeleport(player, target, targetChunk.join(), done, ticks);
+            ready.add(pending);
+            // close() may have drained the queue between the check above and the add
+            if (closed && ready.remove(pending)) {
+                done.completeExceptionally(new IllegalStateException("Teleport pipeline is closed"));
+            }
+        });
+        return done;
+    }
+
+    /**
+     * Performs every teleport whose chunks are ready. Call it from the game
+     * thread, e.g. from an event handler; it returns at once if nothing is waiting.
+     */
+    public void runReady() {
+        PendingTeleport teleport;
+        while ((teleport = ready.poll()) != null) {
+            perform(teleport);
+        }
+    }
+
+    /**
+     * Expires shared chunk lookups and performs teleports that {@link #runReady()}
+     * hasn't picked up within {@value #GAME_THREAD_GRACE_TICKS} ticks. Call once per tick.
+     * Teleports performed here run on the calling thread, not the game thread.
+     */
+    public void tick() {
+        // Forget finished lookups after a while, so later teleports see chunks loaded or unloaded since
+        long now = ++ticks;
+        loads.values().removeIf(load -> load.chunk().isDone() && now - load.startedAt() > LOAD_REUSE_TICKS);
+
+        // Oldest first; a teleport runReady() takes meanwhile is simply not found by remove()
+        PendingTeleport teleport;
+        while ((teleport = ready.peek()) != null && now - teleport.readyAt() >= GAME_THREAD_GRACE_TICKS) {
+            if (ready.remove(teleport)) {
+                perform(teleport);
+            }
+        }
+    }
+
+    /**
+     * Stops accepting teleports and fails the ones that haven't happened yet,
+     * including those whose chunk lookups finish afterwards.
+     */
+    public void close() {
+        closed = true;
+        PendingTeleport teleport;
+        while ((teleport = ready.poll()) != null) {
+            teleport.done().completeExceptionally(new IllegalStateException("Teleport pipeline is closed"));
+        }
+    }
+
+    /**
+     * @return Chunk lookups actually run
+     */
+    public long getChunkLoads() {
+        return chunkLoads.sum();
+    }
+
+    /**
+     * @return Chunks requested by teleports, including ones shared with another teleport
+     */
+    public long getChunkRequests() {
+        return chunkRequests.sum();
+    }
+
+    private CompletableFuture<WorldChunk> load(World world, int chunkX, int chunkZ) {
+        chunkRequests.increment();
+        return loads.computeIfAbsent(new ChunkRequest(world, chunkX, chunkZ), request -> {
+            chunkLoads.increment();
+            return new Load(CompletableFuture.supplyAsync(() -> world.getChunkAt(chunkX, chunkZ), loader), ticks);
+        }).chunk();
+    }
+
+    private void perform(PendingTeleport teleport) {
+        try {
+            Location location = adjust(teleport.target(), teleport.chunk());
+            teleport.player().teleport(location);
+            teleport.done().complete(location);
+        } catch (RuntimeException e) {
+            teleport.done().completeExceptionally(e);
+        }
+    }
+
+    private Location adjust(Location target, WorldChunk chunk) {
+        if (!adjustToSafeY || chunk == null) {
+            return target;
+        }
+        int x = (int) Math.floor(target.getX());
+        int y = (int) Math.floor(target.getY());
+        int z = (int) Math.floor(target.getZ());
+        if (SafeLocations.isSafe(chunk, x, y, z)) {
+            return target;
+        }
+
+        int safeY = SafeLocations.findSafeY(chunk, x, y, z, SAFE_Y_SEARCH);
+        return safeY < 0 ? target : new Location(target.getWorld(), target.getX(), safeY, target.getZ());
+    }
+
+    private record ChunkRequest(World world, int chunkX, int chunkZ) {
+    }
+
+    private record Load(CompletableFuture<WorldChunk> chunk, long startedAt) {
+    }
+
+    private record PendingTeleport(Player player, Location target, WorldChunk chunk,
+                                   CompletableFuture<Location> done, long readyAt) {
+    }
+}
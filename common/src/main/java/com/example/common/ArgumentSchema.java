@@ -0,0 +1,258 @@
+package com.example.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed, indexed description of a command's arguments.
+ *
+ * Declared once per command and compiled into flat arrays; parsing the
+ * server's raw argument map fills a reusable {@link ParsedArgs} by index,
+ * with hand-rolled number parsing that reports bad input by return value
+ * instead of throwing.
+ *
+ * <pre>
+ * private static final ArgumentSchema SCHEMA = ArgumentSchema.builder()
+ *         .requiredInt("x").requiredInt("y").requiredInt("z")
+ *         .requiredString("blockType")
+ *         .build();
+ * private static final int X = SCHEMA.indexOf("x");
+ * </pre>
+ */
+public final class ArgumentSchema {
+
+    /**
+     * Value type of an argument.
+     */
+    public enum Type {
+        STRING,
+        INT,
+        DOUBLE
+    }
+
+    /** Returned by {@link #parse} when every argument is valid. */
+    public static final int VALID = -1;
+
+    private final String[] names;
+    private final Type[] types;
+    private final boolean[] required;
+
+    private ArgumentSchema(String[] names, Type[] types, boolean[] required) {
+        this.names = names;
+        this.types = types;
+        this.required = required;
+    }
+
+    /**
+     * @return A builder for a new schema
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Parses raw arguments into a holder.
+     *
+     * @param raw Argument names to raw values, as passed by the server
+     * @param into The holder to fill; its previous contents are overwritten
+     * @return {@link #VALID}, or the index of the first missing or malformed argument
+     */
+    public int parse(Map<String, String> raw, ParsedArgs into) {
+        into.ensureCapacity(names.length);
+        for (int i = 0; i < names.length; i++) {
+            String value = raw.get(names[i]);
+            if (value == null || value.isEmpty()) {
+                into.present[i] = false;
+                into.strings[i] = null;
+                if (required[i]) {
+                    return i;
+                }
+                continue;
+            }
+
+            into.present[i] = true;
+            into.strings[i] = value;
+            switch (types[i]) {
+                case INT -> {
+                    if (!parseInt(value, into, i)) {
+                        return i;
+                    }
+                }
+                case DOUBLE -> {
+                    if (!isDecimal(value)) {
+                        return i;
+                    }
+                    // Validated above, so this can't throw; overflow still gives infinity
+                    double parsed = Double.parseDouble(value);
+                    if (Double.isInfinite(parsed)) {
+                        return i;
+                    }
+                    into.doubles[i] = parsed;
+                }
+                default -> {
+                }
+            }
+        }
+        return VALID;
+    }
+
+    /**
+     * @param name An argument name
+     * @return Its index, for the {@link ParsedArgs} getters
+     * @throws IllegalArgumentException If the schema has no such argument
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No argument named " + name);
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public Type getType(int index) {
+        return types[index];
+    }
+
+    public boolean isRequired(int index) {
+        return required[index];
+    }
+
+    /** Parses an optionally signed decimal int; false on bad syntax or overflow. */
+    private static boolean parseInt(String value, ParsedArgs into, int index) {
+        int length = value.length();
+        int i = 0;
+        boolean negative = false;
+        char first = value.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == length) {
+                return false;
+            }
+        }
+
+        // Accumulate negatively so Integer.MIN_VALUE fits
+        long result = 0;
+        for (; i < length; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            result = result * 10 - digit;
+            if (result < Integer.MIN_VALUE) {
+                return false;
+            }
+        }
+        if (!negative && result == Integer.MIN_VALUE) {
+            return false;
+        }
+        into.ints[index] = (int) (negative ? result : -result);
+        return true;
+    }
+
+    /** Accepts [sign] digits [. digits] [e [sign] digits], with at least one digit before the exponent. */
+    private static boolean isDecimal(String value) {
+        int length = value.length();
+        int i = 0;
+        if (value.charAt(i) == '-' || value.charAt(i) == '+') {
+            i++;
+        }
+        int digits = 0;
+        while (i < length && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+            i++;
+            digits++;
+        }
+        if (i < length && value.charAt(i) == '.') {
+            i++;
+            while (i < length && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < length && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+                i++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    /**
+     * Builds an {@link ArgumentSchema}; arguments are indexed in declaration order.
+     */
+    public static final class Builder {
+
+        private final List<String> names = new ArrayList<>();
+        private final List<Type> types = new ArrayList<>();
+        private final List<Boolean> required = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder requiredString(String name) {
+            return add(name, Type.STRING, true);
+        }
+
+        public Builder optionalString(String name) {
+            return add(name, Type.STRING, false);
+        }
+
+        public Builder requiredInt(String name) {
+            return add(name, Type.INT, true);
+        }
+
+        public Builder optionalInt(String name) {
+            return add(name, Type.INT, false);
+        }
+
+        public Builder requiredDouble(String name) {
+            return add(name, Type.DOUBLE, true);
+        }
+
+        public Builder optionalDouble(String name) {
+            return add(name, Type.DOUBLE, false);
+        }
+
+        private Builder add(String name, Type type, boolean isRequired) {
+            if (names.contains(name)) {
+                throw new IllegalArgumentException("Duplicate argument " + name);
+            }
+            names.add(name);
+            types.add(type);
+            required.add(isRequired);
+            return this;
+        }
+
+        /**
+         * @return The compiled schema
+         */
+        public ArgumentSchema build() {
+            boolean[] flags = new boolean[required.size()];
+            for (int i = 0; i < flags.length; i++) {
+                flags[i] = required.get(i);
+            }
+            return new ArgumentSchema(names.toArray(new String[0]), types.toArray(new Type[0]), flags);
+        }
+    }
+}
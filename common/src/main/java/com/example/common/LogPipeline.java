@@ -0,0 +1,309 @@
+package com.example.common;
+
+import com.hypixel.hytale.plugin.PluginBase;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves log formatting and output off the game thread.
+ *
+ * Handlers queue records (a {@link LogTemplate} plus primitive or object
+ * arguments) into a fixed-size lock-free ring buffer; a background thread
+ * drains it in batches, formats each record and writes it to the plugin's
+ * logger. Producers never block or allocate: when the buffer is full the
+ * record is dropped and counted, and with {@link OverflowPolicy#SAMPLE}
+ * only one in {@value #SAMPLE_RATE} records is kept once the buffer is
+ * three quarters full. Dropped counts are reported through the logger.
+ *
+ * Errors with stack traces should still go to {@code getLogger().error}
+ * directly; this is meant for the high-volume info and warn lines.
+ */
+public final class LogPipeline implements AutoCloseable {
+
+    /**
+     * What to do when records arrive faster than they can be written.
+     */
+    public enum OverflowPolicy {
+        /** Keep everything until the buffer is full, then drop new records. */
+        DROP,
+        /** Keep one in {@value LogPipeline#SAMPLE_RATE} records once the buffer is filling up. */
+        SAMPLE
+    }
+
+    /** Default buffer size in records. */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /** Most arguments a record can carry; extra arguments are ignored. */
+    static final int MAX_ARGS = 6;
+
+    private static final int SAMPLE_RATE = 8;
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long DROP_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final PluginBase plugin;
+    private final OverflowPolicy policy;
+    private final int capacity;
+    private final int mask;
+    private final int highWater;
+
+    // Ring buffer slots, stored as parallel arrays. sequences[slot] == position + 1
+    // once a record is published at that position, and position + capacity once
+    // the consumer has freed it for the next lap.
+    private final AtomicLongArray sequences;
+    private final LogTemplate[] templates;
+    private final byte[] argCounts;
+    private final Object[] objects;
+    private final long[] values;
+    private final byte[] kinds;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    private final ThreadLocal<LogRecord> records;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    /**
+     * Creates a pipeline with the default capacity that drops records on overflow.
+     *
+     * @param plugin The plugin whose logger the records are written to
+     * @param name Name for the writer thread
+     */
+    public LogPipeline(PluginBase plugin, String name) {
+        this(plugin, name, DEFAULT_CAPACITY, OverflowPolicy.DROP);
+    }
+
+    /**
+     * @param plugin The plugin whose logger the records are written to
+     * @param name Name for the writer thread
+     * @param capacity Buffer size in records, rounded up to a power of two
+     * @param policy What to do when the buffer fills up
+     */
+    public LogPipeline(PluginBase plugin, String name, int capacity, OverflowPolicy policy) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2: " + capacity);
+        }
+        this.plugin = plugin;
+        this.policy = policy;
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.highWater = this.capacity - this.capacity / 4;
+
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.templates = new LogTemplate[this.capacity];
+        this.argCounts = new byte[this.capacity];
+        this.objects = new Object[this.capacity * MAX_ARGS];
+        this.values = new long[this.capacity * MAX_ARGS];
+        this.kinds = new byte[this.capacity * MAX_ARGS];
+
+        this.records = ThreadLocal.withInitial(() -> new LogRecord(this));
+        this.writer = new Thread(this::drainLoop, name + "-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Starts a record. Add its arguments and call {@link LogRecord#end()} to queue it.
+     *
+     * @param template The message template
+     * @return This thread's reusable record
+     */
+    public LogRecord begin(LogTemplate template) {
+        return records.get().reset(template);
+    }
+
+    /**
+     * Queues a record without arguments.
+     *
+     * @param template The message template
+     */
+    public void log(LogTemplate template) {
+        begin(template).end();
+    }
+
+    void publish(LogRecord record) {
+        if (!running) {
+            dropped.increment();
+            return;
+        }
+
+        long occupancy = tail.get() - head.get();
+        if (policy == OverflowPolicy.SAMPLE && occupancy >= highWater
+                && record.sampleCounter++ % SAMPLE_RATE != 0) {
+            sampledOut.increment();
+            return;
+        }
+
+        // Claim a position; fails only when the buffer is full
+        long position;
+        int slot;
+        while (true) {
+            position = tail.get();
+            if (position - head.get() >= capacity) {
+                dropped.increment();
+                return;
+            }
+            slot = (int) position & mask;
+            if (sequences.get(slot) == position && tail.compareAndSet(position, position + 1)) {
+                break;
+            }
+        }
+
+        int count = record.argCount;
+        int base = slot * MAX_ARGS;
+        templates[slot] = record.template;
+        argCounts[slot] = (byte) count;
+        System.arraycopy(record.objects, 0, objects, base, count);
+        System.arraycopy(record.values, 0, values, base, count);
+        System.arraycopy(record.kinds, 0, kinds, base, count);
+
+        // Volatile write publishes the slot contents to the writer thread
+        sequences.set(slot, position + 1);
+    }
+
+    /**
+     * @return Records dropped because the buffer was full (or the pipeline closed)
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return Records skipped by the sampling policy
+     */
+    public long getSampledOut() {
+        return sampledOut.sum();
+    }
+
+    /**
+     * @return Records written to the logger
+     */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * @return Records queued but not yet written
+     */
+    public int getPending() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * Stops accepting records, writes everything already queued and stops
+     * the writer thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        StringBuilder message = new StringBuilder(256);
+        long reportedDrops = 0;
+        long lastReport = System.nanoTime();
+
+        while (true) {
+            boolean stopping = !running;
+            int drained = drain(message);
+
+            long now = System.nanoTime();
+            if (stopping || now - lastReport >= DROP_REPORT_INTERVAL_NANOS) {
+                long drops = dropped.sum() + sampledOut.sum();
+                if (drops > reportedDrops) {
+                    plugin.getLogger().warn("Log pipeline dropped " + (drops - reportedDrops)
+                            + " records to keep up (buffer holds " + capacity + ")");
+                    reportedDrops = drops;
+                }
+                lastReport = now;
+            }
+
+            if (drained == 0) {
+                if (stopping) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /** Writes up to one batch of records; returns how many were written. */
+    private int drain(StringBuilder message) {
+        long position = head.get();
+        int drained = 0;
+
+        while (drained < BATCH_SIZE) {
+            int slot = (int) position & mask;
+            if (sequences.get(slot) != position + 1) {
+                break;  // Not published yet
+            }
+
+            LogTemplate template = templates[slot];
+            format(message, template, slot);
+            templates[slot] = null;
+
+            // Free the slot before advancing head so producers see it released
+            sequences.set(slot, position + capacity);
+            head.lazySet(++position);
+            drained++;
+
+            try {
+                if (template.getLevel() == LogTemplate.Level.WARN) {
+                    plugin.getLogger().warn(message.toString());
+                } else {
+                    plugin.getLogger().info(message.toString());
+                }
+                written.increment();
+            } catch (RuntimeException e) {
+                // A broken appender must not kill the writer thread
+            }
+        }
+        return drained;
+    }
+
+    private void format(StringBuilder message, LogTemplate template, int slot) {
+        message.setLength(0);
+        int base = slot * MAX_ARGS;
+        int count = argCounts[slot];
+        int placeholders = template.getArgumentCount();
+
+        for (int i = 0; i < placeholders; i++) {
+            message.append(template.part(i));
+            if (i >= count) {
+                message.append("{}");
+                continue;
+            }
+            int index = base + i;
+            switch (kinds[index]) {
+                case LogRecord.LONG -> message.append(values[index]);
+                case LogRecord.DOUBLE -> message.append(Double.longBitsToDouble(values[index]));
+                case LogRecord.BOOLEAN -> message.append(values[index] != 0);
+                default -> message.append(objects[index]);
+            }
+        }
+        message.append(template.part(placeholders));
+
+        // Release argument references held by the slot
+        for (int i = 0; i < count; i++) {
+            objects[base + i] = null;
+        }
+    }
+}
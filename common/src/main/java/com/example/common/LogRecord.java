@@ -0,0 +1,105 @@
+package com.example.common;
+
+/**
+ * Arguments for one log record, collected before it is queued.
+ *
+ * Obtained from {@link LogPipeline#begin}; each thread reuses the same
+ * instance, so building a record doesn't allocate. Add the arguments in
+ * placeholder order and finish with {@link #end()}:
+ *
+ * <pre>
+ * logs.begin(TELEPORTED).arg(player.getName()).arg(x).arg(y).arg(z).end();
+ * </pre>
+ *
+ * Nothing is queued until {@code end()}, so a record abandoned halfway
+ * (for example by an exception) is simply overwritten by the next one.
+ */
+public final class LogRecord {
+
+    /** Argument kinds, stored alongside the values. */
+    static final byte OBJECT = 0;
+    static final byte LONG = 1;
+    static final byte DOUBLE = 2;
+    static final byte BOOLEAN = 3;
+
+    private final LogPipeline pipeline;
+
+    LogTemplate template;
+    int argCount;
+    final Object[] objects = new Object[LogPipeline.MAX_ARGS];
+    final long[] values = new long[LogPipeline.MAX_ARGS];
+    final byte[] kinds = new byte[LogPipeline.MAX_ARGS];
+
+    /** Per-thread counter for the sampling overflow policy. */
+    int sampleCounter;
+
+    LogRecord(LogPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    LogRecord reset(LogTemplate template) {
+        this.template = template;
+        this.argCount = 0;
+        return this;
+    }
+
+    /**
+     * @param value An argument, formatted with String.valueOf on the logging thread
+     * @return This record
+     */
+    public LogRecord arg(Object value) {
+        if (argCount < LogPipeline.MAX_ARGS) {
+            objects[argCount] = value;
+            kinds[argCount++] = OBJECT;
+        }
+        return this;
+    }
+
+    /**
+     * @param value An integer argument
+     * @return This record
+     */
+    public LogRecord arg(long value) {
+        if (argCount < LogPipeline.MAX_ARGS) {
+            values[argCount] = value;
+            kinds[argCount++] = LONG;
+        }
+        return this;
+    }
+
+    /**
+     * @param value A floating-point argument
+     * @return This record
+     */
+    public LogRecord arg(double value) {
+        if (argCount < LogPipeline.MAX_ARGS) {
+            values[argCount] = Double.doubleToRawLongBits(value);
+            kinds[argCount++] = DOUBLE;
+        }
+        return this;
+    }
+
+    /**
+     * @param value A boolean argument
+     * @return This record
+     */
+    public LogRecord arg(boolean value) {
+        if (argCount < LogPipeline.MAX_ARGS) {
+            values[argCount] = value ? 1 : 0;
+            kinds[argCount++] = BOOLEAN;
+        }
+        return this;
+    }
+
+    /**
+     * Queues the record. Never blocks; if the queue is full the record is
+     * dropped (or sampled) according to the pipeline's overflow policy.
+     */
+    public void end() {
+        pipeline.publish(this);
+        // Don't keep argument objects reachable from the thread's scratch record
+        for (int i = 0; i < argCount; i++) {
+            objects[i] = null;
+        }
+    }
+}
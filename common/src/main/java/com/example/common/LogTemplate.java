@@ -0,0 +1,85 @@
+package com.example.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A precompiled log message with "{}" placeholders.
+ *
+ * Declare templates as constants next to the code that logs them; the
+ * pattern is split once here, so queuing a record only stores a reference
+ * to the template plus its arguments.
+ *
+ * <pre>
+ * private static final LogTemplate TELEPORTED = LogTemplate.info("{} teleported to {}, {}, {}");
+ * </pre>
+ */
+public final class LogTemplate {
+
+    /**
+     * Severity a template is logged at.
+     */
+    public enum Level {
+        INFO,
+        WARN
+    }
+
+    private final Level level;
+    private final String pattern;
+
+    /** Literal text around the placeholders; one more than the number of arguments. */
+    private final String[] parts;
+
+    private LogTemplate(Level level, String pattern) {
+        this.level = level;
+        this.pattern = pattern;
+
+        List<String> split = new ArrayList<>();
+        int start = 0;
+        for (int i = pattern.indexOf("{}"); i >= 0; i = pattern.indexOf("{}", start)) {
+            split.add(pattern.substring(start, i));
+            start = i + 2;
+        }
+        split.add(pattern.substring(start));
+        this.parts = split.toArray(new String[0]);
+    }
+
+    /**
+     * @param pattern The message, with "{}" for each argument
+     * @return A template logged at INFO
+     */
+    public static LogTemplate info(String pattern) {
+        return new LogTemplate(Level.INFO, pattern);
+    }
+
+    /**
+     * @param pattern The message, with "{}" for each argument
+     * @return A template logged at WARN
+     */
+    public static LogTemplate warn(String pattern) {
+        return new LogTemplate(Level.WARN, pattern);
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @return The number of "{}" placeholders
+     */
+    public int getArgumentCount() {
+        return parts.length - 1;
+    }
+
+    /**
+     * @param index The literal part, from 0 to {@link #getArgumentCount()}
+     * @return The text before argument {@code index} (or after the last one)
+     */
+    String part(int index) {
+        return parts[index];
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.common;
+
+/**
+ * Parsed command arguments, stored by schema index in primitive arrays.
+ *
+ * One instance is reused per thread by {@link TypedCommand}, so reading
+ * arguments doesn't box or allocate. Only read it during the execute call
+ * it was passed to.
+ */
+public final class ParsedArgs {
+
+    int[] ints = new int[0];
+    double[] doubles = new double[0];
+    String[] strings = new String[0];
+    boolean[] present = new boolean[0];
+
+    void ensureCapacity(int size) {
+        if (present.length < size) {
+            ints = new int[size];
+            doubles = new double[size];
+            strings = new String[size];
+            present = new boolean[size];
+        }
+    }
+
+    /**
+     * @param index Schema index of an INT argument
+     * @return Its value (0 if an optional argument was omitted)
+     */
+    public int getInt(int index) {
+        return present[index] ? ints[index] : 0;
+    }
+
+    /**
+     * @param index Schema index of a DOUBLE argument
+     * @return Its value (0 if an optional argument was omitted)
+     */
+    public double getDouble(int index) {
+        return present[index] ? doubles[index] : 0;
+    }
+
+    /**
+     * @param index Schema index of any argument
+     * @return Its raw text, or null if an optional argument was omitted
+     */
+    public String getString(int index) {
+        return present[index] ? strings[index] : null;
+    }
+
+    /**
+     * @param index Schema index of any argument
+     * @return Whether the argument was given
+     */
+    public boolean isPresent(int index) {
+        return present[index];
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.common;
+
+import com.hypixel.hytale.world.block.BlockAccessor;
+import com.hypixel.hytale.world.block.BlockType;
+import com.hypixel.hytale.world.chunk.WorldChunk;
+
+/**
+ * Checks whether a player can stand at a position.
+ *
+ * Safe means a solid block below and two air blocks for the player's feet
+ * and head. Shared so every mod agrees on what a safe landing spot is.
+ */
+public final class SafeLocations {
+
+    /** Lowest feet Y with room for a block below. */
+    public static final int MIN_Y = 1;
+
+    /** Highest feet Y with room for the player's head. */
+    public static final int MAX_Y = 253;
+
+    private SafeLocations() {
+    }
+
+    /**
+     * Checks if a block position is safe for a player to stand at.
+     *
+     * @param chunk The chunk containing the position
+     * @param x X coordinate (world coords)
+     * @param y Y coordinate (player feet position)
+     * @param z Z coordinate (world coords)
+     * @return true if the position is safe
+     */
+    public static boolean isSafe(WorldChunk chunk, int x, int y, int z) {
+        if (y < MIN_Y || y > MAX_Y) {
+            return false;  // Too close to world boundaries
+        }
+
+        BlockAccessor accessor = chunk.getBlockAccessor();
+
+        // Check for solid block below
+        if (accessor.getBlock(x, y - 1, z) == BlockType.AIR) {
+            return false;
+        }
+
+        // Check for air at feet and head level
+        return accessor.getBlock(x, y, z) == BlockType.AIR
+                && accessor.getBlock(x, y + 1, z) == BlockType.AIR;
+    }
+
+    /**
+     * Finds the safe feet position in a column closest to a preferred height.
+     *
+     * @param chunk The chunk containing the column
+     * @param x X coordinate (world coords)
+     * @param y Preferred Y coordinate (player feet position)
+     * @param z Z coordinate (world coords)
+     * @param maxDistance How far above or below y to look
+     * @return The closest safe Y (the higher one on a tie), or -1 if there is none in range
+     */
+    public static int findSafeY(WorldChunk chunk, int x, int y, int z, int maxDistance) {
+        for (int distance = 0; distance <= maxDistance; distance++) {
+            if (isSafe(chunk, x, y + distance, z)) {
+                return y + distance;
+            }
+            if (distance > 0 && isSafe(chunk, x, y - distance, z)) {
+                return y - distance;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.common;
+
+import com.hypixel.hytale.plugin.PluginBase;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a plugin's periodic work on its own thread, once per tick interval.
+ *
+ * The server API offers no tick callback and no way to run code on the
+ * game thread, so work that must happen regularly (delivering coalesced
+ * moves, applying queued edits, finishing teleports) is driven from here
+ * instead. The task does NOT run on the game thread: anything it shares
+ * with event handlers or commands has to be guarded by the caller.
+ *
+ * The thread is a named daemon, so it shows up in thread dumps and never
+ * keeps the server from exiting. A task that throws is logged and keeps
+ * running on the next interval. {@link #close()} waits for a pass that is
+ * already running to finish, so the plugin can release what the task uses
+ * right after.
+ *
+ * <pre>
+ * tickDriver = new TickDriver(this, "WorldExample-edits", editScheduler::tick);
+ * // In teardown()
+ * tickDriver.close();
+ * </pre>
+ */
+public final class TickDriver implements AutoCloseable {
+
+    /** One server tick at 20 ticks per second. */
+    public static final long TICK_MILLIS = 50;
+
+    /** How long {@link #close()} waits for a running pass. */
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+    private final PluginBase plugin;
+    private final String name;
+    private final Runnable task;
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Starts running a task every {@value #TICK_MILLIS} ms.
+     *
+     * @param plugin The plugin whose logger reports errors
+     * @param name Name for the thread
+     * @param task The work to run each interval
+     */
+    public TickDriver(PluginBase plugin, String name, Runnable task) {
+        this.plugin = plugin;
+        this.name = name;
+        this.task = task;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::runTask, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the driver and waits for a pass that is already running to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        plugin.getLogger().warn(name + " did not stop within " + CLOSE_TIMEOUT_SECONDS + " seconds");
+    }
+
+    private void runTask() {
+        try {
+            task.run();
+        } catch (Exception e) {
+            // An exception would cancel the repeating task, so log and keep going
+            plugin.getLogger().error(name + " error", e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.common;
+
+import com.hypixel.hytale.plugin.commands.AbstractCommand;
+import com.hypixel.hytale.plugin.commands.CommandContext;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+/**
+ * AbstractCommand whose arguments are declared with an {@link ArgumentSchema}.
+ *
+ * The schema's arguments are registered with withRequiredArg/withOptionalArg
+ * for the server's usage help, and each call's raw arguments are parsed once
+ * into this thread's reusable {@link ParsedArgs}. Subclasses implement
+ * {@link #execute(CommandContext, ParsedArgs)} and read arguments by index;
+ * missing or malformed input goes to {@link #onInvalidArgument} instead of
+ * surfacing as a NumberFormatException.
+ */
+public abstract class TypedCommand extends AbstractCommand {
+
+    private final ArgumentSchema schema;
+    private final ThreadLocal<ParsedArgs> parsedArgs = ThreadLocal.withInitial(ParsedArgs::new);
+
+    protected TypedCommand(String name, String description, ArgumentSchema schema) {
+        super(name, description);
+        this.schema = schema;
+
+        for (int i = 0; i < schema.size(); i++) {
+            if (schema.isRequired(i)) {
+                withRequiredArg(schema.getName(i));
+            } else {
+                withOptionalArg(schema.getName(i));
+            }
+        }
+    }
+
+    @Override
+    public final void execute(CommandContext context) {
+        ParsedArgs args = parsedArgs.get();
+        int invalid = schema.parse(context.getArgs(), args);
+        if (invalid != ArgumentSchema.VALID) {
+            onInvalidArgument(context, invalid);
+            return;
+        }
+        execute(context, args);
+    }
+
+    /**
+     * Runs the command with validated arguments.
+     *
+     * @param context The command context
+     * @param args The parsed arguments, indexed by the schema
+     */
+    protected abstract void execute(CommandContext context, ParsedArgs args);
+
+    /**
+     * Called instead of {@link #execute(CommandContext, ParsedArgs)} when an
+     * argument is missing or malformed. Override for a command-specific message.
+     *
+     * @param context The command context
+     * @param index Schema index of the first bad argument
+     */
+    protected void onInvalidArgument(CommandContext context, int index) {
+        String type = switch (schema.getType(index)) {
+            case INT -> "a whole number";
+            case DOUBLE -> "a number";
+            case STRING -> "a value";
+        };
+        context.getSender().sendMessage(Component.text("Invalid " + schema.getName(index)
+                + "! Expected " + type + ".").color(NamedTextColor.RED));
+    }
+
+    /**
+     * @return The command's argument schema
+     */
+    public ArgumentSchema getSchema() {
+        return schema;
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.events;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Case-insensitive blocklist filter for chat messages.
+ *
+ * The word list is compiled into an Aho-Corasick automaton with a dense
+ * int transition table, so a message is checked against every word in one
+ * pass over its characters - no lowercased copy, no per-word loop and no
+ * allocation on the chat thread.
+ *
+ * The list can be replaced at any time with {@link #reload}. The new
+ * automaton is built on the calling thread and then swapped in with a
+ * single volatile write, so messages being filtered meanwhile keep using
+ * the old list and never wait.
+ */
+public final class ChatFilter {
+
+    private volatile Automaton automaton;
+
+    /**
+     * @param words The blocked words; matched as substrings, ignoring case
+     */
+    public ChatFilter(Collection<String> words) {
+        this.automaton = Automaton.compile(words);
+    }
+
+    /**
+     * Checks whether a message contains any blocked word.
+     *
+     * @param message The chat message
+     * @return true if the message should be blocked
+     */
+    public boolean matches(CharSequence message) {
+        return automaton.matches(message);
+    }
+
+    /**
+     * Replaces the blocklist. Safe to call from any thread while chat is running.
+     *
+     * @param words The new blocked words
+     */
+    public void reload(Collection<String> words) {
+        automaton = Automaton.compile(words);
+    }
+
+    /**
+     * Replaces the blocklist with the words in a file, one per line.
+     * Blank lines and lines starting with '#' are ignored.
+     *
+     * @param file The word list file (UTF-8)
+     * @throws IOException If the file can't be read; the current list is kept
+     */
+    public void reload(Path file) throws IOException {
+        List<String> words = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String word = line.trim();
+            if (!word.isEmpty() && word.charAt(0) != '#') {
+                words.add(word);
+            }
+        }
+        reload(words);
+    }
+
+    /**
+     * @return The number of words in the current blocklist
+     */
+    public int getWordCount() {
+        return automaton.wordCount;
+    }
+
+    /**
+     * Compiled, immutable automaton for one version of the blocklist.
+     *
+     * Characters are mapped to small class ids (0 = not in any word) and
+     * transitions are stored as next[state * alphabetSize + class]. Failure
+     * links are folded into the table at build time, so scanning is one
+     * array read per character.
+     */
+    private static final class Automaton {
+
+        private final int wordCount;
+        private final int alphabetSize;
+
+        /** Class ids for ASCII, covering both cases. */
+        private final int[] asciiClasses;
+
+        /** Sorted lowercase non-ASCII characters and their class ids. */
+        private final char[] otherChars;
+        private final int[] otherClasses;
+
+        private final int[] next;
+
+        /** Whether a blocked word ends at this state (directly or via a failure link). */
+        private final boolean[] accepting;
+
+        private Automaton(int wordCount, int alphabetSize, int[] asciiClasses,
+                          char[] otherChars, int[] otherClasses, int[] next, boolean[] accepting) {
+            this.wordCount = wordCount;
+            this.alphabetSize = alphabetSize;
+            this.asciiClasses = asciiClasses;
+            this.otherChars = otherChars;
+            this.otherClasses = otherClasses;
+            this.next = next;
+            this.accepting = accepting;
+        }
+
+        boolean matches(CharSequence message) {
+            int state = 0;
+            for (int i = 0, length = message.length(); i < length; i++) {
+                state = next[state * alphabetSize + classOf(message.charAt(i))];
+                if (accepting[state]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int classOf(char c) {
+            if (c < 128) {
+                return asciiClasses[c];
+            }
+            char lower = Character.toLowerCase(c);
+            if (lower < 128) {
+                return asciiClasses[lower];
+            }
+            int i = Arrays.binarySearch(otherChars, lower);
+            return i >= 0 ? otherClasses[i] : 0;
+        }
+
+        static Automaton compile(Collection<String> words) {
+            // Normalize once so matching only has to lowercase the message side
+            List<String> normalized = new ArrayList<>(words.size());
+            int totalLength = 0;
+            for (String word : words) {
+                String lower = lowerCase(word.trim());
+                if (!lower.isEmpty()) {
+                    normalized.add(lower);
+                    totalLength += lower.length();
+                }
+            }
+
+            // Assign a class id to every distinct character
+            int[] classOf = new int[Character.MAX_VALUE + 1];
+            int alphabetSize = 1;
+            for (String word : normalized) {
+                for (int i = 0; i < word.length(); i++) {
+                    char c = word.charAt(i);
+                    if (classOf[c] == 0) {
+                        classOf[c] = alphabetSize++;
+                    }
+                }
+            }
+
+            int[] asciiClasses = new int[128];
+            for (char c = 0; c < 128; c++) {
+                asciiClasses[c] = classOf[Character.toLowerCase(c)];
+            }
+            int otherCount = 0;
+            for (int c = 128; c < classOf.length; c++) {
+                if (classOf[c] != 0) {
+                    otherCount++;
+                }
+            }
+            char[] otherChars = new char[otherCount];
+            int[] otherClasses = new int[otherCount];
+            for (int c = 128, i = 0; c < classOf.length; c++) {
+                if (classOf[c] != 0) {
+                    otherChars[i] = (char) c;
+                    otherClasses[i++] = classOf[c];
+                }
+            }
+
+            // Build the trie; 0 means "no edge" since nothing points back at the root
+            int maxStates = totalLength + 1;
+            int[] next = new int[Math.multiplyExact(maxStates, alphabetSize)];
+            boolean[] accepting = new boolean[maxStates];
+            int states = 1;
+            for (String word : normalized) {
+                int state = 0;
+                for (int i = 0; i < word.length(); i++) {
+                    int index = state * alphabetSize + classOf[word.charAt(i)];
+                    if (next[index] == 0) {
+                        next[index] = states++;
+                    }
+                    state = next[index];
+                }
+                accepting[state] = true;
+            }
+
+            // Breadth-first: compute failure links and fill in the missing transitions
+            int[] fail = new int[states];
+            int[] queue = new int[states];
+            int head = 0;
+            int tail = 0;
+            for (int c = 1; c < alphabetSize; c++) {
+                if (next[c] != 0) {
+                    queue[tail++] = next[c];
+                }
+            }
+            while (head < tail) {
+                int state = queue[head++];
+                accepting[state] |= accepting[fail[state]];
+                int row = state * alphabetSize;
+                int failRow = fail[state] * alphabetSize;
+                for (int c = 1; c < alphabetSize; c++) {
+                    int target = next[row + c];
+                    if (target != 0) {
+                        fail[target] = next[failRow + c];
+                        queue[tail++] = target;
+                    } else {
+                        next[row + c] = next[failRow + c];
+                    }
+                }
+            }
+
+            return new Automaton(normalized.size(), alphabetSize, asciiClasses, otherChars, otherClasses,
+                    Arrays.copyOf(next, states * alphabetSize), Arrays.copyOf(accepting, states));
+        }
+
+        /** Lowercases per char, matching what {@link #classOf} does to the message. */
+        private static String lowerCase(String word) {
+            char[] chars = word.toCharArray();
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = Character.toLowerCase(chars[i]);
+            }
+            return new String(chars);
+        }
+    }
+}
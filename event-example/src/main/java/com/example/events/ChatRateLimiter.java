@@ -0,0 +1,261 @@
+package com.example.events;
+
+import com.hypixel.hytale.entity.player.Player;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-player chat rate limiter.
+ *
+ * Each player gets a token bucket: a burst of messages, refilled at a
+ * steady rate. The bucket is stored as a single long - the time at which
+ * it will be full again (the "generic cell rate algorithm" form of a
+ * token bucket) - so checking and spending a token is one compare-and-set
+ * on the monotonic clock, with no lock and no allocation.
+ *
+ * Buckets live in a fixed-size open-addressing table keyed by player id.
+ * A player's slot is freed when they quit (left as a tombstone, so other
+ * players' probe chains stay intact) and reused by later players. If the
+ * table still fills up, it is rebuilt keeping only the players whose
+ * bucket isn't full: a full bucket behaves exactly like no entry at all,
+ * so players who are being limited stay limited.
+ */
+public final class ChatRateLimiter {
+
+    /** Messages a player can send in a burst. */
+    public static final int DEFAULT_BURST = 5;
+
+    /** Sustained messages per second once the burst is used up. */
+    public static final double DEFAULT_MESSAGES_PER_SECOND = 1.0;
+
+    /** Slots in the table; it is compacted once three quarters are used. */
+    private static final int TABLE_CAPACITY = 4096;
+
+    /** Minimum time between "slow down" warnings to the same player. */
+    private static final long WARNING_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final long nanosPerMessage;
+    private final long burstNanos;
+    private final long origin = System.nanoTime();
+
+    private volatile Table table = new Table(TABLE_CAPACITY);
+
+    /**
+     * Creates a limiter with the default burst and rate.
+     */
+    public ChatRateLimiter() {
+        this(DEFAULT_BURST, DEFAULT_MESSAGES_PER_SECOND);
+    }
+
+    /**
+     * @param burst Messages a player can send back to back
+     * @param messagesPerSecond Sustained rate after the burst
+     */
+    public ChatRateLimiter(int burst, double messagesPerSecond) {
+        if (burst < 1 || messagesPerSecond <= 0) {
+            throw new IllegalArgumentException("burst must be >= 1 and rate > 0");
+        }
+        this.nanosPerMessage = (long) (TimeUnit.SECONDS.toNanos(1) / messagesPerSecond);
+        this.burstNanos = nanosPerMessage * burst;
+    }
+
+    /**
+     * Spends one token for a chat message.
+     *
+     * @param player The player sending the message
+     * @return true if the message is allowed, false if the player is over budget
+     */
+    public boolean tryAcquire(Player player) {
+        // Offset so 0 means "never used"; nanoTime itself may be negative
+        long now = System.nanoTime() - origin + 1;
+        long id = PlayerIds.of(player);
+        Table current = table;
+        int slot = current.slotFor(id);
+        if (slot < 0) {
+            compact(current, now);
+            current = table;
+            slot = current.slotFor(id);
+            if (slot < 0) {
+                return true;  // Every slot holds a player who is being limited; let this one through
+            }
+        }
+
+        AtomicLongArray fullAt = current.fullAt;
+        while (true) {
+            long state = fullAt.get(slot);
+            long next = Math.max(state, now) + nanosPerMessage;
+            if (next - now > burstNanos) {
+                return false;  // Bucket empty; leave it as is
+            }
+            if (fullAt.compareAndSet(slot, state, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Decides whether a rejected player should be told to slow down, so a
+     * spammer gets one warning every couple of seconds rather than one per message.
+     *
+     * @param player A player whose message was just rejected
+     * @return true if a warning should be sent now
+     */
+    public boolean shouldWarn(Player player) {
+        long now = System.nanoTime() - origin + 1;
+        Table current = table;
+        int slot = current.slotFor(PlayerIds.of(player));
+        if (slot < 0) {
+            return true;
+        }
+        long last = current.warnedAt.get(slot);
+        return (last == 0 || now - last >= WARNING_INTERVAL_NANOS)
+                && current.warnedAt.compareAndSet(slot, last, now);
+    }
+
+    /**
+     * Forgets a player's bucket and frees their slot, e.g. when they leave.
+     *
+     * @param player The player
+     */
+    public void reset(Player player) {
+        table.remove(PlayerIds.of(player));
+    }
+
+    /**
+     * Replaces a full table with one holding only the buckets that still
+     * matter: those not yet full again, or with a recent warning.
+     */
+    private synchronized void compact(Table full, long now) {
+        if (table != full) {
+            return;  // Another thread already did it
+        }
+
+        // Tokens spent in the old table while copying may be lost; that only lets a message or two through
+        Table compacted = new Table(TABLE_CAPACITY);
+        for (int slot = 0; slot < TABLE_CAPACITY; slot++) {
+            long key = full.keys.get(slot);
+            if (key == Table.EMPTY || key == Table.TOMBSTONE) {
+                continue;
+            }
+            long fullAt = full.fullAt.get(slot);
+            long warnedAt = full.warnedAt.get(slot);
+            boolean recentlyWarned = warnedAt != 0 && now - warnedAt < WARNING_INTERVAL_NANOS;
+            if (fullAt <= now && !recentlyWarned) {
+                continue;
+            }
+            int copy = compacted.claim(key);
+            if (copy < 0) {
+                break;
+            }
+            compacted.fullAt.set(copy, fullAt);
+            compacted.warnedAt.set(copy, warnedAt);
+        }
+        table = compacted;
+    }
+
+    /**
+     * Open-addressing table of player ids and their bucket state.
+     */
+    private static final class Table {
+
+        /** Mark an empty slot and a freed one; ids with these values are remapped so they can be stored. */
+        static final long EMPTY = 0L;
+        static final long TOMBSTONE = 1L;
+
+        private final AtomicLongArray keys;
+        private final AtomicLongArray fullAt;
+        private final AtomicLongArray warnedAt;
+        private final AtomicInteger size = new AtomicInteger();
+        private final int mask;
+        private final int maxSize;
+
+        Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.fullAt = new AtomicLongArray(capacity);
+            this.warnedAt = new AtomicLongArray(capacity);
+            this.mask = capacity - 1;
+            this.maxSize = capacity - capacity / 4;
+        }
+
+        /** Finds or claims the slot for an id; -1 if the table is full. */
+        int slotFor(long id) {
+            return claim(keyOf(id));
+        }
+
+        /** Finds or claims the slot for a stored key, reusing a freed slot if there is one. */
+        int claim(long key) {
+            int freed = -1;
+            for (int slot = slot(key), probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+                long k = keys.get(slot);
+                if (k == key) {
+                    return slot;
+                }
+                if (k == TOMBSTONE) {
+                    if (freed < 0) {
+                        freed = slot;
+                    }
+                    continue;
+                }
+                if (k == EMPTY) {
+                    if (freed >= 0) {
+                        return claimFreed(freed, key);
+                    }
+                    if (size.get() >= maxSize) {
+                        return -1;
+                    }
+                    if (keys.compareAndSet(slot, EMPTY, key)) {
+                        size.incrementAndGet();
+                        return slot;
+                    }
+                    if (keys.get(slot) == key) {
+                        return slot;  // Another thread claimed it for the same player
+                    }
+                }
+            }
+            return freed >= 0 ? claimFreed(freed, key) : -1;
+        }
+
+        /** Frees an id's slot and clears its bucket. */
+        void remove(long id) {
+            int slot = find(id);
+            if (slot >= 0) {
+                fullAt.set(slot, 0);
+                warnedAt.set(slot, 0);
+                keys.compareAndSet(slot, keyOf(id), TOMBSTONE);
+            }
+        }
+
+        /** Finds the slot for an id without claiming one; -1 if absent. */
+        int find(long id) {
+            long key = keyOf(id);
+            for (int slot = slot(key), probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+                long k = keys.get(slot);
+                if (k == key) {
+                    return slot;
+                }
+                if (k == EMPTY) {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        private int claimFreed(int freed, long key) {
+            if (keys.compareAndSet(freed, TOMBSTONE, key) || keys.get(freed) == key) {
+                return freed;
+            }
+            return claim(key);  // Taken by another player meanwhile; probe again
+        }
+
+        private static long keyOf(long id) {
+            return id == EMPTY || id == TOMBSTONE ? id ^ Long.MIN_VALUE : id;
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.events;
+
+import com.hypixel.hytale.entity.player.Player;
+import com.hypixel.hytale.world.Location;
+
+import java.util.Arrays;
+
+/**
+ * Tracks which chunk each online player is in and notifies listeners only
+ * when a player crosses a chunk boundary.
+ *
+ * Features that care about chunk changes register a {@link Listener} here
+ * instead of subscribing to PlayerMoveEvent, so they only run on the rare
+ * moves that actually cross a boundary. Positions are kept in a primitive
+ * long-keyed map (player id to packed chunk X/Z) and block coordinates are
+ * turned into chunk coordinates with a shift, so an ordinary move costs
+ * one map lookup and no allocation.
+ *
+ * Not thread-safe: calls must not overlap. In this mod it is fed by the
+ * move coalescer under PlayerEventListener's move lock, from the event
+ * thread or the tick driver, and listeners are called there too.
+ */
+public final class ChunkTracker {
+
+    /**
+     * Callback for chunk boundary crossings.
+     *
+     * Called on the thread that fed the tracker the move. In this mod that
+     * is the event thread or, for moves flushed by the move coalescer,
+     * EventExamplePlugin's tick driver, a background thread. Listeners must
+     * not assume they run on the game thread, and anything they share with
+     * other code needs its own synchronization.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called after a player has left one chunk and entered another.
+         *
+         * @param player The player that moved
+         * @param fromChunkX The chunk X the player left
+         * @param fromChunkZ The chunk Z the player left
+         * @param toChunkX The chunk X the player entered
+         * @param toChunkZ The chunk Z the player entered
+         */
+        void onChunkChanged(Player player, int fromChunkX, int fromChunkZ, int toChunkX, int toChunkZ);
+    }
+
+    /** Returned by the map for untracked players; chunk X of Integer.MIN_VALUE is never reachable. */
+    private static final long NOT_TRACKED = Long.MIN_VALUE;
+
+    private final LongLongMap chunks = new LongLongMap(256);
+
+    /** Copied on add so dispatch can iterate without an iterator. */
+    private volatile Listener[] listeners = new Listener[0];
+
+    /**
+     * Registers a listener for chunk boundary crossings.
+     *
+     * @param listener The listener
+     */
+    public synchronized void addListener(Listener listener) {
+        Listener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[updated.length - 1] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * Starts tracking a player from their current location, without notifying listeners.
+     *
+     * @param player The player
+     */
+    public void track(Player player) {
+        Location location = player.getLocation();
+        chunks.put(PlayerIds.of(player), pack(toChunk(location.getX()), toChunk(location.getZ())));
+    }
+
+    /**
+     * Updates a player's chunk after a move and notifies listeners if it changed.
+     * Players that aren't tracked yet are seeded from the move's origin.
+     *
+     * @param player The player that moved
+     * @param from Where the player moved from
+     * @param to Where the player moved to
+     * @return true if the player entered a different chunk
+     */
+    public boolean move(Player player, Location from, Location to) {
+        long id = PlayerIds.of(player);
+        long toChunk = pack(toChunk(to.getX()), toChunk(to.getZ()));
+        long fromChunk = chunks.get(id, NOT_TRACKED);
+        if (fromChunk == toChunk) {
+            return false;
+        }
+        if (fromChunk == NOT_TRACKED) {
+            fromChunk = pack(toChunk(from.getX()), toChunk(from.getZ()));
+        }
+        chunks.put(id, toChunk);
+        if (fromChunk == toChunk) {
+            return false;
+        }
+
+        for (Listener listener : listeners) {
+            listener.onChunkChanged(player, chunkX(fromChunk), chunkZ(fromChunk),
+                    chunkX(toChunk), chunkZ(toChunk));
+        }
+        return true;
+    }
+
+    /**
+     * Stops tracking a player, e.g. when they leave the server.
+     *
+     * @param player The player
+     */
+    public void untrack(Player player) {
+        chunks.remove(PlayerIds.of(player));
+    }
+
+    /**
+     * @return The number of players being tracked
+     */
+    public int getTrackedCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Converts a world coordinate to a chunk coordinate without floating-point division.
+     *
+     * @param coordinate The world X or Z coordinate
+     * @return The chunk coordinate containing it
+     */
+    public static int toChunk(double coordinate) {
+        int block = (int) coordinate;
+        if (coordinate < block) {
+            block--;  // Truncation rounds negatives up; floor instead
+        }
+        return block >> 4;
+    }
+
+    private static long pack(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static int chunkX(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    private static int chunkZ(long packed) {
+        return (int) packed;
+    }
+}
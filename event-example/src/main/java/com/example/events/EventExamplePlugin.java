@@ -1,5 +1,7 @@
 package com.example.events;
 
+import com.example.common.LogPipeline;
+import com.example.common.TickDriver;
 import com.hypixel.hytale.plugin.PluginBase;
 
 /**
@@ -14,24 +16,109 @@ import com.hypixel.hytale.plugin.PluginBase;
 public class EventExamplePlugin extends PluginBase {
 
     private PlayerEventListener playerEventListener;
+    private LogPipeline logPipeline;
+    private HandlerProfiler handlerProfiler;
+    private TickDriver tickDriver;
 
     @Override
     public void setup() {
         getLogger().info("Event Example mod is loading...");
 
+        // Handlers log through a background pipeline instead of on the game thread
+        logPipeline = new LogPipeline(this, "EventExample");
+
+        // Times every handler the listener registers; see /eventstats
+        handlerProfiler = new HandlerProfiler();
+
         // Create and register our event listener
         // The listener class contains all the event handler methods
         playerEventListener = new PlayerEventListener(this);
 
-        getLogger().info("Event Example mod loaded! Listening for player events.");
+        // Moves held back by the coalescer are delivered at least once per tick,
+        // so observers don't wait for a player's next move to see where they stopped
+        tickDriver = new TickDriver(this, "EventExample-moves", playerEventListener::flushMoves);
+
+        // Register the /eventstats admin command
+        commandRegistry.registerCommand(new EventStatsCommand(this));
+
+        getLogger().info("Event Example mod loaded! Listening for player events. Available commands: /eventstats");
     }
 
     @Override
     public void teardown() {
         getLogger().info("Event Example mod unloading...");
 
+        // Stop flushing moves before dropping the listener
+        if (tickDriver != null) {
+            tickDriver.close();
+            tickDriver = null;
+        }
+
         // Clean up - event listeners are automatically unregistered
         // when the plugin is disabled, but explicit cleanup is good practice
         playerEventListener = null;
+
+        // Write out any queued log lines and stop the pipeline thread
+        if (logPipeline != null) {
+            logPipeline.close();
+            logPipeline = null;
+        }
+    }
+
+    /**
+     * Gets the pipeline event handlers use for their routine log lines.
+     *
+     * @return The log pipeline, or null before setup
+     */
+    public LogPipeline getLogPipeline() {
+        return logPipeline;
+    }
+
+    /**
+     * Gets the profiler that times the event handlers.
+     *
+     * @return The handler profiler, or null before setup
+     */
+    public HandlerProfiler getHandlerProfiler() {
+        return handlerProfiler;
+    }
+
+    /**
+     * Gets the chat filter so the blocklist can be reloaded at runtime.
+     *
+     * @return The chat filter
+     */
+    public ChatFilter getChatFilter() {
+        return playerEventListener.getChatFilter();
+    }
+
+    /**
+     * Gets the move coalescer so observers can follow player movement
+     * without running on every move packet.
+     *
+     * @return The move coalescer
+     */
+    public MoveCoalescer getMoveCoalescer() {
+        return playerEventListener.getMoveCoalescer();
+    }
+
+    /**
+     * Gets the chunk tracker so other features can react to chunk changes
+     * without listening to every move event.
+     *
+     * @return The chunk tracker
+     */
+    public ChunkTracker getChunkTracker() {
+        return playerEventListener.getChunkTracker();
+    }
+
+    /**
+     * Gets the spatial index of online players, for "who is near here"
+     * queries without iterating every player. Safe to query from any thread.
+     *
+     * @return The player index
+     */
+    public PlayerSpatialIndex getPlayerIndex() {
+        return playerEventListener.getPlayerIndex();
     }
 }
@@ -0,0 +1,75 @@
+package com.example.events;
+
+import com.hypixel.hytale.plugin.commands.AbstractCommand;
+import com.hypixel.hytale.plugin.commands.CommandContext;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+/**
+ * Admin command that shows how long each event handler takes.
+ *
+ * Usage: /eventstats [reset|on|off]
+ * - No argument: one line per handler with call count, cancellations and latency percentiles
+ * - reset: clears the recorded stats
+ * - on / off: turns profiling on or off
+ *
+ * Restrict this command to operators with your server's permission setup.
+ */
+public class EventStatsCommand extends AbstractCommand {
+
+    private final EventExamplePlugin plugin;
+
+    public EventStatsCommand(EventExamplePlugin plugin) {
+        super("eventstats", "Shows per-handler event timings");
+        this.plugin = plugin;
+
+        withOptionalArg("action");
+    }
+
+    @Override
+    public void execute(CommandContext context) {
+        var sender = context.getSender();
+        HandlerProfiler profiler = plugin.getHandlerProfiler();
+        String action = context.getArgs().get("action");
+
+        if ("reset".equalsIgnoreCase(action)) {
+            profiler.reset();
+            sender.sendMessage(Component.text("Event handler stats reset.").color(NamedTextColor.GREEN));
+            return;
+        }
+        if ("on".equalsIgnoreCase(action) || "off".equalsIgnoreCase(action)) {
+            profiler.setEnabled("on".equalsIgnoreCase(action));
+            sender.sendMessage(Component.text("Event handler profiling " + action.toLowerCase() + ".")
+                    .color(NamedTextColor.GREEN));
+            return;
+        }
+        if (action != null && !action.isEmpty()) {
+            sender.sendMessage(Component.text("Usage: /eventstats [reset|on|off]").color(NamedTextColor.RED));
+            return;
+        }
+
+        sender.sendMessage(Component.text("Event handlers" + (profiler.isEnabled() ? "" : " (profiling off)")
+                + ": calls, cancelled, mean / p50 / p99 / p99.9 / max").color(NamedTextColor.GOLD));
+        for (HandlerProfiler.HandlerStats stats : profiler.getHandlers()) {
+            sender.sendMessage(Component.text(stats.getName() + ": ").color(NamedTextColor.YELLOW)
+                    .append(Component.text(stats.getInvocations() + " calls, "
+                            + stats.getCancellations() + " cancelled, "
+                            + formatNanos(stats.getMeanNanos()) + " / "
+                            + formatNanos(stats.getPercentileNanos(50)) + " / "
+                            + formatNanos(stats.getPercentileNanos(99)) + " / "
+                            + formatNanos(stats.getPercentileNanos(99.9)) + " / "
+                            + formatNanos(stats.getMaxNanos()))
+                            .color(NamedTextColor.WHITE)));
+        }
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + "ns";
+        }
+        if (nanos < 1_000_000) {
+            return String.format("%.1fus", nanos / 1e3);
+        }
+        return String.format("%.1fms", nanos / 1e6);
+    }
+}
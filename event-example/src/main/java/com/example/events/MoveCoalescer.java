@@ -0,0 +1,216 @@
+package com.example.events;
+
+import com.hypixel.hytale.entity.player.Player;
+import com.hypixel.hytale.world.Location;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collapses each player's stream of move events into fewer callbacks for
+ * observers that only need to know where players are, not every step.
+ *
+ * A move is passed on immediately if it's the player's first, if the last
+ * delivery was at least one interval ago (a tick by default), or if the
+ * player has moved at least the distance threshold since then (teleports,
+ * fast travel). Otherwise it only replaces the player's pending position,
+ * which is delivered with a later move, by {@link #flush()}, or when the
+ * player is untracked. Observers always get the position from their
+ * previous callback as "from", so no movement is lost, only merged.
+ *
+ * Checks that may cancel a move should stay on PlayerMoveEvent itself;
+ * observers only see moves that weren't cancelled.
+ *
+ * Not thread-safe: calls must not overlap. PlayerEventListener makes them
+ * under one lock, from the event thread and from the plugin's tick driver,
+ * and observers are called with that lock held.
+ */
+public final class MoveCoalescer {
+
+    /**
+     * Receives coalesced moves.
+     *
+     * Callbacks come from whichever thread called onMove, flush or
+     * untrack. In this mod that is usually the event thread, but moves
+     * delivered by {@link #flush()} arrive on EventExamplePlugin's tick
+     * driver, a background thread. Observers must not assume they run on
+     * the game thread, and anything they share with other code needs its
+     * own synchronization.
+     */
+    @FunctionalInterface
+    public interface Observer {
+
+        /**
+         * @param player The player that moved
+         * @param from Where the player was at the previous callback (or before their first move)
+         * @param to Where the player is now
+         */
+        void onMove(Player player, Location from, Location to);
+    }
+
+    /** One server tick at 20 ticks per second. */
+    public static final long DEFAULT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /** Moves at least this far (in blocks) since the last callback are delivered at once. */
+    public static final double DEFAULT_MIN_DISTANCE = 4.0;
+
+    private static final long NO_SLOT = -1;
+
+    private final long intervalNanos;
+    private final double minDistanceSquared;
+
+    /** Player id to slot in the arrays below. */
+    private final LongLongMap slots = new LongLongMap(256);
+    private Player[] players = new Player[64];
+    private Location[] delivered = new Location[64];
+    private Location[] pending = new Location[64];
+    private long[] deliveredAt = new long[64];
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int slotCount;
+
+    private Observer[] observers = new Observer[0];
+
+    private long received;
+    private long deliveredCount;
+
+    /**
+     * Creates a coalescer with a one-tick interval and the default distance threshold.
+     */
+    public MoveCoalescer() {
+        this(DEFAULT_INTERVAL_NANOS, DEFAULT_MIN_DISTANCE);
+    }
+
+    /**
+     * @param intervalNanos Minimum time between callbacks for a player
+     * @param minDistance Distance in blocks that triggers a callback regardless of time
+     */
+    public MoveCoalescer(long intervalNanos, double minDistance) {
+        this.intervalNanos = intervalNanos;
+        this.minDistanceSquared = minDistance * minDistance;
+    }
+
+    /**
+     * Registers an observer for coalesced moves.
+     *
+     * @param observer The observer
+     */
+    public void addObserver(Observer observer) {
+        observers = Arrays.copyOf(observers, observers.length + 1);
+        observers[observers.length - 1] = observer;
+    }
+
+    /**
+     * Feeds one accepted move into the coalescer.
+     *
+     * @param player The player that moved
+     * @param from The event's origin, used for the player's first move
+     * @param to Where the player moved to
+     */
+    public void onMove(Player player, Location from, Location to) {
+        received++;
+        long now = System.nanoTime();
+        long id = PlayerIds.of(player);
+        int slot = (int) slots.get(id, NO_SLOT);
+
+        if (slot < 0) {
+            slot = allocate(id, player);
+            delivered[slot] = from;
+        } else if (now - deliveredAt[slot] < intervalNanos
+                && distanceSquared(delivered[slot], to) < minDistanceSquared) {
+            // Within the window: remember where the player is and move on
+            pending[slot] = to;
+            return;
+        }
+
+        deliver(slot, to, now);
+    }
+
+    /**
+     * Delivers every pending position now. Call it once per tick so
+     * observers never lag behind a player who stopped moving by more than
+     * a tick; EventExamplePlugin does this from its tick driver.
+     */
+    public void flush() {
+        long now = System.nanoTime();
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (pending[slot] != null) {
+                deliver(slot, pending[slot], now);
+            }
+        }
+    }
+
+    /**
+     * Delivers the player's pending position, if any, and forgets them.
+     *
+     * @param player The player, e.g. on quit
+     */
+    public void untrack(Player player) {
+        long id = PlayerIds.of(player);
+        int slot = (int) slots.get(id, NO_SLOT);
+        if (slot < 0) {
+            return;
+        }
+        if (pending[slot] != null) {
+            deliver(slot, pending[slot], System.nanoTime());
+        }
+        slots.remove(id);
+        players[slot] = null;
+        delivered[slot] = null;
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * @return Moves passed to {@link #onMove}
+     */
+    public long getReceived() {
+        return received;
+    }
+
+    /**
+     * @return Coalesced moves passed on to the observers
+     */
+    public long getDelivered() {
+        return deliveredCount;
+    }
+
+    private void deliver(int slot, Location to, long now) {
+        Location from = delivered[slot];
+        delivered[slot] = to;
+        pending[slot] = null;
+        deliveredAt[slot] = now;
+        deliveredCount++;
+
+        Player player = players[slot];
+        for (Observer observer : observers) {
+            observer.onMove(player, from, to);
+        }
+    }
+
+    private int allocate(long id, Player player) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == players.length) {
+                int capacity = slotCount * 2;
+                players = Arrays.copyOf(players, capacity);
+                delivered = Arrays.copyOf(delivered, capacity);
+                pending = Arrays.copyOf(pending, capacity);
+                deliveredAt = Arrays.copyOf(deliveredAt, capacity);
+                freeSlots = Arrays.copyOf(freeSlots, capacity);
+            }
+            slot = slotCount++;
+        }
+        slots.put(id, slot);
+        players[slot] = player;
+        return slot;
+    }
+
+    private static double distanceSquared(Location a, Location b) {
+        double dx = a.getX() - b.getX();
+        double dy = a.getY() - b.getY();
+        double dz = a.getZ() - b.getZ();
+        return dx * dx + dy * dy + dz * dz;
+    }
+}
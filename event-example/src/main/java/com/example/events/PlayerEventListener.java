@@ -1,5 +1,8 @@
 package com.example.events;
 
+import com.example.common.LogPipeline;
+import com.example.common.LogTemplate;
+import com.example.common.MessageTemplate;
 import com.hypixel.hytale.event.EventBus;
 import com.hypixel.hytale.event.EventPriority;
 import com.hypixel.hytale.event.player.PlayerJoinEvent;
@@ -10,6 +13,8 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 
+import java.util.List;
+
 /**
  * Event listener class that handles various player events.
  *
@@ -27,20 +32,104 @@ import net.kyori.adventure.text.format.TextDecoration;
  */
 public class PlayerEventListener {
 
+    /** Words blocked until a real list is loaded with {@link ChatFilter#reload}. */
+    private static final List<String> DEFAULT_BLOCKLIST = List.of("badword");
+
+    // Log lines, formatted on the log pipeline's thread rather than in the handlers
+    private static final LogTemplate JOINED = LogTemplate.info("{} joined the server");
+    private static final LogTemplate LEFT = LogTemplate.info("{} left the server");
+    private static final LogTemplate CHAT = LogTemplate.info("[CHAT] {}: {}");
+    private static final LogTemplate CHAT_BLOCKED = LogTemplate.warn("Blocked message from {}");
+    private static final LogTemplate BELOW_ZERO = LogTemplate.info("Prevented {} from going below Y=0");
+    private static final LogTemplate CHUNK_CHANGED = LogTemplate.info("{} moved to chunk [{}, {}]");
+
+    // Player-facing messages; the fixed text and colors are built once, not per event
+    private static final MessageTemplate WELCOME = MessageTemplate.builder()
+            .text("Welcome, ", NamedTextColor.YELLOW)
+            .slot(NamedTextColor.GOLD, TextDecoration.BOLD)
+            .text("!", NamedTextColor.YELLOW)
+            .build();
+    private static final MessageTemplate QUIT = MessageTemplate.builder()
+            .slot(NamedTextColor.GRAY)
+            .text(" has left the game", NamedTextColor.DARK_GRAY)
+            .build();
+    private static final Component MESSAGE_BLOCKED = Component.text("Your message was blocked!")
+            .color(NamedTextColor.RED);
+    private static final Component CHAT_TOO_FAST = Component.text("You're sending messages too fast!")
+            .color(NamedTextColor.RED);
+    private static final Component BELOW_ZERO_DENIED = Component.text("You cannot go below Y=0!")
+            .color(NamedTextColor.RED);
+
     private final EventExamplePlugin plugin;
     private final EventBus eventBus;
+    private final LogPipeline logs;
+    private final HandlerProfiler profiler;
+    private final ChatFilter chatFilter = new ChatFilter(DEFAULT_BLOCKLIST);
+    private final ChunkTracker chunkTracker = new ChunkTracker();
+    private final MoveCoalescer moveCoalescer = new MoveCoalescer();
+    private final PlayerSpatialIndex playerIndex = new PlayerSpatialIndex();
+
+    /**
+     * Guards the coalescer and what it feeds (chunk tracker, player index),
+     * which are used from the event thread and from the plugin's tick driver.
+     */
+    private final Object moveLock = new Object();
+    private final ChatRateLimiter chatRateLimiter = new ChatRateLimiter();
 
     public PlayerEventListener(EventExamplePlugin plugin) {
         this.plugin = plugin;
         // Get the event bus from the plugin's event registry
         // This is the main interface for registering event listeners
         this.eventBus = plugin.getEventRegistry();
+        this.logs = plugin.getLogPipeline();
+        this.profiler = plugin.getHandlerProfiler();
 
         // Register all event listeners
         registerPlayerJoinListener();
         registerPlayerQuitListener();
         registerPlayerChatListener();
         registerPlayerMoveListener();
+        registerChunkChangeListener();
+        registerPlayerIndexUpdates();
+    }
+
+    /**
+     * @return The chat filter, for reloading the blocklist
+     */
+    public ChatFilter getChatFilter() {
+        return chatFilter;
+    }
+
+    /**
+     * @return The move coalescer, for observing player movement at tick rate
+     */
+    public MoveCoalescer getMoveCoalescer() {
+        return moveCoalescer;
+    }
+
+    /**
+     * @return The chunk tracker, for listening to chunk boundary crossings
+     */
+    public ChunkTracker getChunkTracker() {
+        return chunkTracker;
+    }
+
+    /**
+     * @return The spatial index of online players, for proximity queries
+     */
+    public PlayerSpatialIndex getPlayerIndex() {
+        return playerIndex;
+    }
+
+    /**
+     * Delivers the moves the coalescer is still holding back, so the chunk
+     * tracker and player index catch up with players who stopped moving.
+     * Called once per tick by the plugin's tick driver.
+     */
+    public void flushMoves() {
+        synchronized (moveLock) {
+            moveCoalescer.flush();
+        }
     }
 
     /**
@@ -53,24 +142,22 @@ public class PlayerEventListener {
      * See: https://hytale-docs.dev/classes/com.hypixel.hytale.event.player.PlayerJoinEvent.html
      */
     private void registerPlayerJoinListener() {
-        eventBus.register(PlayerJoinEvent.class, event -> {
+        // Handlers are wrapped by the profiler so /eventstats can show their timings
+        eventBus.register(PlayerJoinEvent.class, profiler.wrap("join", event -> {
             var player = event.getPlayer();
 
             // Log to server console
-            plugin.getLogger().info(player.getName() + " joined the server");
+            logs.begin(JOINED).arg(player.getName()).end();
+
+            synchronized (moveLock) {
+                chunkTracker.track(player);
+                playerIndex.track(player);
+            }
 
             // Customize the join message
             // Using Adventure Components for rich text formatting
-            Component joinMessage = Component.text("Welcome, ")
-                    .color(NamedTextColor.YELLOW)
-                    .append(Component.text(player.getName())
-                            .color(NamedTextColor.GOLD)
-                            .decorate(TextDecoration.BOLD))
-                    .append(Component.text("!")
-                            .color(NamedTextColor.YELLOW));
-
-            event.setJoinMessage(joinMessage);
-        });
+            event.setJoinMessage(WELCOME.render(player.getName()));
+        }));
     }
 
     /**
@@ -83,19 +170,22 @@ public class PlayerEventListener {
      * See: https://hytale-docs.dev/classes/com.hypixel.hytale.event.player.PlayerQuitEvent.html
      */
     private void registerPlayerQuitListener() {
-        eventBus.register(PlayerQuitEvent.class, event -> {
+        eventBus.register(PlayerQuitEvent.class, profiler.wrap("quit", event -> {
             var player = event.getPlayer();
 
-            plugin.getLogger().info(player.getName() + " left the server");
+            logs.begin(LEFT).arg(player.getName()).end();
 
-            // Customize the quit message
-            Component quitMessage = Component.text(player.getName())
-                    .color(NamedTextColor.GRAY)
-                    .append(Component.text(" has left the game")
-                            .color(NamedTextColor.DARK_GRAY));
+            // Deliver the player's last position before forgetting them
+            synchronized (moveLock) {
+                moveCoalescer.untrack(player);
+                chunkTracker.untrack(player);
+                playerIndex.untrack(player);
+            }
+            chatRateLimiter.reset(player);
 
-            event.setQuitMessage(quitMessage);
-        });
+            // Customize the quit message
+            event.setQuitMessage(QUIT.render(player.getName()));
+        }));
     }
 
     /**
@@ -107,6 +197,12 @@ public class PlayerEventListener {
      * Priority: EARLY - runs before other listeners
      * This is useful for filtering or moderation features
      *
+     * Messages are rate-limited per player first, in this same handler:
+     * the event bus doesn't order listeners within a priority, so a
+     * separate limiter listener could run after the filter had already
+     * logged or rewritten the message. Each player can send a short
+     * burst, then about one message per second.
+     *
      * See: https://hytale-docs.dev/classes/com.hypixel.hytale.event.player.PlayerChatEvent.html
      * See: https://hytale-docs.dev/classes/com.hypixel.hytale.event.EventPriority.html
      */
@@ -114,23 +210,40 @@ public class PlayerEventListener {
         eventBus.register(
             PlayerChatEvent.class,
             EventPriority.EARLY,  // Run before other listeners
-            event -> {
+            profiler.wrap("chat", PlayerChatEvent::isCancelled, event -> {
+                // Already rejected by another listener - skip limiting, filtering and logging
+                if (event.isCancelled()) {
+                    return;
+                }
+
                 var player = event.getPlayer();
+
+                // Over-budget messages are cancelled before anything else looks at them
+                if (!chatRateLimiter.tryAcquire(player)) {
+                    event.setCancelled(true);
+
+                    // One prebuilt warning, at most every couple of seconds
+                    if (chatRateLimiter.shouldWarn(player)) {
+                        player.sendMessage(CHAT_TOO_FAST);
+                    }
+                    return;
+                }
+
                 String message = event.getMessage();
 
                 // Log chat messages to server console
-                plugin.getLogger().info("[CHAT] " + player.getName() + ": " + message);
+                logs.begin(CHAT).arg(player.getName()).arg(message).end();
 
-                // Example: Block messages containing "badword"
-                if (message.toLowerCase().contains("badword")) {
+                // Block messages containing any word on the blocklist
+                // One pass over the message, no matter how long the list is
+                if (chatFilter.matches(message)) {
                     // Cancel the event to prevent the message from being sent
                     event.setCancelled(true);
 
                     // Notify the player
-                    player.sendMessage(Component.text("Your message was blocked!")
-                            .color(NamedTextColor.RED));
+                    player.sendMessage(MESSAGE_BLOCKED);
 
-                    plugin.getLogger().warn("Blocked message from " + player.getName());
+                    logs.begin(CHAT_BLOCKED).arg(player.getName()).end();
                 }
 
                 // Example: Add a prefix to messages starting with "!"
@@ -138,7 +251,7 @@ public class PlayerEventListener {
                     String newMessage = "[ANNOUNCEMENT] " + message.substring(1);
                     event.setMessage(newMessage);
                 }
-            }
+            })
         );
     }
 
@@ -157,7 +270,7 @@ public class PlayerEventListener {
         eventBus.register(
             PlayerMoveEvent.class,
             EventPriority.LATE,  // Run after other listeners
-            event -> {
+            profiler.wrap("move", PlayerMoveEvent::isCancelled, event -> {
                 var player = event.getPlayer();
                 var from = event.getFrom();
                 var to = event.getTo();
@@ -168,25 +281,43 @@ public class PlayerEventListener {
                     event.setCancelled(true);
 
                     // Notify the player
-                    player.sendMessage(Component.text("You cannot go below Y=0!")
-                            .color(NamedTextColor.RED));
+                    player.sendMessage(BELOW_ZERO_DENIED);
 
-                    plugin.getLogger().info("Prevented " + player.getName() + " from going below Y=0");
+                    logs.begin(BELOW_ZERO).arg(player.getName()).end();
                 }
 
-                // Example: Log when players move between chunks
-                // Note: This is just for demonstration - in production you'd want
-                // to track this more efficiently to avoid excessive logging
-                int fromChunkX = (int) Math.floor(from.getX() / 16);
-                int fromChunkZ = (int) Math.floor(from.getZ() / 16);
-                int toChunkX = (int) Math.floor(to.getX() / 16);
-                int toChunkZ = (int) Math.floor(to.getZ() / 16);
-
-                if (fromChunkX != toChunkX || fromChunkZ != toChunkZ) {
-                    plugin.getLogger().info(player.getName() + " moved to chunk [" +
-                            toChunkX + ", " + toChunkZ + "]");
+                // Observers that don't cancel (like the chunk tracker) get moves
+                // through the coalescer, at most about once per tick per player
+                if (!event.isCancelled()) {
+                    synchronized (moveLock) {
+                        moveCoalescer.onMove(player, from, to);
+                    }
                 }
-            }
+            })
         );
     }
+
+    /**
+     * Listen for players moving between chunks.
+     *
+     * Uses the ChunkTracker instead of PlayerMoveEvent, so this only runs
+     * when a player actually enters a new chunk rather than on every move.
+     */
+    private void registerChunkChangeListener() {
+        // The tracker only needs positions, not every packet
+        moveCoalescer.addObserver(chunkTracker::move);
+
+        chunkTracker.addListener((player, fromChunkX, fromChunkZ, toChunkX, toChunkZ) ->
+                logs.begin(CHUNK_CHANGED).arg(player.getName()).arg(toChunkX).arg(toChunkZ).end());
+    }
+
+    /**
+     * Keeps the player spatial index current.
+     *
+     * Fed from the move coalescer like the chunk tracker, so the index is
+     * updated at most about once per tick per player.
+     */
+    private void registerPlayerIndexUpdates() {
+        moveCoalescer.addObserver((player, from, to) -> playerIndex.update(player, to));
+    }
 }
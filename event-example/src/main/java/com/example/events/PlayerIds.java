@@ -0,0 +1,26 @@
+package com.example.events;
+
+import com.hypixel.hytale.entity.player.Player;
+
+import java.util.UUID;
+
+/**
+ * Packs a player's UUID into a single long for primitive-keyed maps.
+ */
+final class PlayerIds {
+
+    private PlayerIds() {
+    }
+
+    /**
+     * Folds the UUID's two halves together. Random UUIDs are uniformly
+     * distributed, so collisions between online players are negligible.
+     *
+     * @param player The player
+     * @return A 64-bit id for the player
+     */
+    static long of(Player player) {
+        UUID uuid = player.getUuid();
+        return uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+    }
+}
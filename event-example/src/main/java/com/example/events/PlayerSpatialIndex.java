@@ -0,0 +1,323 @@
+package com.example.events;
+
+import com.hypixel.hytale.entity.player.Player;
+import com.hypixel.hytale.world.Location;
+import com.hypixel.hytale.world.World;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Answers "which players are near here" without looking at every player.
+ *
+ * Online players are bucketed by the chunk they stand in. Each player has
+ * a slot holding their position in primitive arrays, and each chunk bucket
+ * is an int array of player slots, so a move inside a chunk only
+ * overwrites three doubles and a move across chunks swaps the player from
+ * one bucket to another. A radius or box query only visits the buckets of
+ * the chunks it overlaps (or every non-empty bucket, if that is fewer),
+ * so its cost follows the number of nearby players rather than the number
+ * online.
+ *
+ * Positions are updated from the move coalescer, so they can trail a
+ * player's exact position by up to a tick or a few blocks.
+ *
+ * Thread-safe: every method locks the index, so commands running on
+ * other threads can query it while the event thread and the move flush
+ * update it. A query holds the lock only while it walks the buckets it
+ * overlaps.
+ */
+public final class PlayerSpatialIndex {
+
+    private static final long ABSENT = -1;
+
+    /** Player id to slot in the per-player arrays. */
+    private final LongLongMap slots = new LongLongMap(256);
+    private Player[] players = new Player[64];
+    private World[] worlds = new World[64];
+    private double[] xs = new double[64];
+    private double[] ys = new double[64];
+    private double[] zs = new double[64];
+    private int[] bucketOf = new int[64];
+    private int[] indexInBucket = new int[64];
+    private int[] freeSlots = new int[64];
+    private int freeSlotCount;
+    private int slotCount;
+
+    /** Packed chunk X/Z to bucket index. */
+    private final LongLongMap bucketsByChunk = new LongLongMap(256);
+    private long[] bucketChunks = new long[64];
+    private int[][] bucketMembers = new int[64][];
+    private int[] bucketSizes = new int[64];
+    private int[] freeBuckets = new int[64];
+    private int freeBucketCount;
+    private int bucketCount;
+    private int liveBuckets;
+
+    /**
+     * Adds a player at their current location, or moves them there if already indexed.
+     *
+     * @param player The player, e.g. on join
+     */
+    public synchronized void track(Player player) {
+        update(player, player.getLocation());
+    }
+
+    /**
+     * Records a player's new position. Untracked players are added.
+     *
+     * @param player The player that moved
+     * @param to Where the player is now
+     */
+    public synchronized void update(Player player, Location to) {
+        long id = PlayerIds.of(player);
+        int slot = (int) slots.get(id, ABSENT);
+        long chunk = pack(ChunkTracker.toChunk(to.getX()), ChunkTracker.toChunk(to.getZ()));
+
+        if (slot < 0) {
+            slot = allocateSlot(id, player);
+            addToBucket(slot, chunk);
+        } else if (bucketChunks[bucketOf[slot]] != chunk) {
+            removeFromBucket(slot);
+            addToBucket(slot, chunk);
+        }
+
+        worlds[slot] = to.getWorld();
+        xs[slot] = to.getX();
+        ys[slot] = to.getY();
+        zs[slot] = to.getZ();
+    }
+
+    /**
+     * Removes a player, e.g. when they leave the server.
+     *
+     * @param player The player
+     */
+    public synchronized void untrack(Player player) {
+        long id = PlayerIds.of(player);
+        int slot = (int) slots.get(id, ABSENT);
+        if (slot < 0) {
+            return;
+        }
+        removeFromBucket(slot);
+        slots.remove(id);
+        players[slot] = null;
+        worlds[slot] = null;
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    /**
+     * Collects the players within a distance of a point.
+     *
+     * @param center The point, in its world
+     * @param radius Distance in blocks
+     * @param into Receives the players found (the list is not cleared first)
+     * @return The number of players added
+     */
+    public synchronized int nearby(Location center, double radius, List<Player> into) {
+        double cx = center.getX();
+        double cy = center.getY();
+        double cz = center.getZ();
+        double radiusSquared = radius * radius;
+        World world = center.getWorld();
+
+        int found = 0;
+        int minChunkX = ChunkTracker.toChunk(cx - radius);
+        int maxChunkX = ChunkTracker.toChunk(cx + radius);
+        int minChunkZ = ChunkTracker.toChunk(cz - radius);
+        int maxChunkZ = ChunkTracker.toChunk(cz + radius);
+
+        if (scanAll(minChunkX, minChunkZ, maxChunkX, maxChunkZ)) {
+            for (int bucket = 0; bucket < bucketCount; bucket++) {
+                found += collectNearby(bucket, world, cx, cy, cz, radiusSquared, into);
+            }
+            return found;
+        }
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                int bucket = (int) bucketsByChunk.get(pack(chunkX, chunkZ), ABSENT);
+                if (bucket >= 0) {
+                    found += collectNearby(bucket, world, cx, cy, cz, radiusSquared, into);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Collects the players inside a box.
+     *
+     * @param world The world to search
+     * @param minX Minimum X coordinate
+     * @param minY Minimum Y coordinate
+     * @param minZ Minimum Z coordinate
+     * @param maxX Maximum X coordinate
+     * @param maxY Maximum Y coordinate
+     * @param maxZ Maximum Z coordinate
+     * @param into Receives the players found (the list is not cleared first)
+     * @return The number of players added
+     */
+    public synchronized int within(World world, double minX, double minY, double minZ,
+                      double maxX, double maxY, double maxZ, List<Player> into) {
+        int found = 0;
+        int minChunkX = ChunkTracker.toChunk(minX);
+        int maxChunkX = ChunkTracker.toChunk(maxX);
+        int minChunkZ = ChunkTracker.toChunk(minZ);
+        int maxChunkZ = ChunkTracker.toChunk(maxZ);
+
+        if (scanAll(minChunkX, minChunkZ, maxChunkX, maxChunkZ)) {
+            for (int bucket = 0; bucket < bucketCount; bucket++) {
+                found += collectWithin(bucket, world, minX, minY, minZ, maxX, maxY, maxZ, into);
+            }
+            return found;
+        }
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                int bucket = (int) bucketsByChunk.get(pack(chunkX, chunkZ), ABSENT);
+                if (bucket >= 0) {
+                    found += collectWithin(bucket, world, minX, minY, minZ, maxX, maxY, maxZ, into);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return The number of players in the index
+     */
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    /**
+     * @return The number of chunks with at least one player
+     */
+    public synchronized int getOccupiedChunks() {
+        return liveBuckets;
+    }
+
+    /** Whether walking every bucket is cheaper than looking up each chunk in the range. */
+    private boolean scanAll(int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        long chunksInRange = ((long) maxChunkX - minChunkX + 1) * ((long) maxChunkZ - minChunkZ + 1);
+        return chunksInRange > bucketCount;
+    }
+
+    private int collectNearby(int bucket, World world, double cx, double cy, double cz,
+                              double radiusSquared, List<Player> into) {
+        int[] members = bucketMembers[bucket];
+        int found = 0;
+        for (int i = 0, size = bucketSizes[bucket]; i < size; i++) {
+            int slot = members[i];
+            double dx = xs[slot] - cx;
+            double dy = ys[slot] - cy;
+            double dz = zs[slot] - cz;
+            if (worlds[slot] == world && dx * dx + dy * dy + dz * dz <= radiusSquared) {
+                into.add(players[slot]);
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private int collectWithin(int bucket, World world, double minX, double minY, double minZ,
+                              double maxX, double maxY, double maxZ, List<Player> into) {
+        int[] members = bucketMembers[bucket];
+        int found = 0;
+        for (int i = 0, size = bucketSizes[bucket]; i < size; i++) {
+            int slot = members[i];
+            double x = xs[slot];
+            double y = ys[slot];
+            double z = zs[slot];
+            if (worlds[slot] == world && x >= minX && x <= maxX && y >= minY && y <= maxY
+                    && z >= minZ && z <= maxZ) {
+                into.add(players[slot]);
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private int allocateSlot(long id, Player player) {
+        int slot;
+        if (freeSlotCount > 0) {
+            slot = freeSlots[--freeSlotCount];
+        } else {
+            if (slotCount == players.length) {
+                int capacity = slotCount * 2;
+                players = Arrays.copyOf(players, capacity);
+                worlds = Arrays.copyOf(worlds, capacity);
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+                zs = Arrays.copyOf(zs, capacity);
+                bucketOf = Arrays.copyOf(bucketOf, capacity);
+                indexInBucket = Arrays.copyOf(indexInBucket, capacity);
+                freeSlots = Arrays.copyOf(freeSlots, capacity);
+            }
+            slot = slotCount++;
+        }
+        slots.put(id, slot);
+        players[slot] = player;
+        return slot;
+    }
+
+    private void addToBucket(int slot, long chunk) {
+        int bucket = (int) bucketsByChunk.get(chunk, ABSENT);
+        if (bucket < 0) {
+            bucket = allocateBucket(chunk);
+        }
+
+        int size = bucketSizes[bucket];
+        int[] members = bucketMembers[bucket];
+        if (size == members.length) {
+            members = Arrays.copyOf(members, size * 2);
+            bucketMembers[bucket] = members;
+        }
+        members[size] = slot;
+        bucketSizes[bucket] = size + 1;
+        bucketOf[slot] = bucket;
+        indexInBucket[slot] = size;
+    }
+
+    private void removeFromBucket(int slot) {
+        int bucket = bucketOf[slot];
+        int index = indexInBucket[slot];
+        int last = --bucketSizes[bucket];
+
+        // Swap the bucket's last member into the gap
+        int[] members = bucketMembers[bucket];
+        int moved = members[last];
+        members[index] = moved;
+        indexInBucket[moved] = index;
+
+        if (last == 0) {
+            bucketsByChunk.remove(bucketChunks[bucket]);
+            freeBuckets[freeBucketCount++] = bucket;
+            liveBuckets--;
+        }
+    }
+
+    private int allocateBucket(long chunk) {
+        int bucket;
+        if (freeBucketCount > 0) {
+            bucket = freeBuckets[--freeBucketCount];
+        } else {
+            if (bucketCount == bucketChunks.length) {
+                int capacity = bucketCount * 2;
+                bucketChunks = Arrays.copyOf(bucketChunks, capacity);
+                bucketMembers = Arrays.copyOf(bucketMembers, capacity);
+                bucketSizes = Arrays.copyOf(bucketSizes, capacity);
+                freeBuckets = Arrays.copyOf(freeBuckets, capacity);
+            }
+            bucket = bucketCount++;
+            bucketMembers[bucket] = new int[4];
+        }
+        bucketChunks[bucket] = chunk;
+        bucketsByChunk.put(chunk, bucket);
+        liveBuckets++;
+        return bucket;
+    }
+
+    private static long pack(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
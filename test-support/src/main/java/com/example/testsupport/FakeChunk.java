@@ -0,0 +1,72 @@
+package com.example.testsupport;
+
+import com.hypixel.hytale.world.block.BlockAccessor;
+import com.hypixel.hytale.world.block.BlockType;
+import com.hypixel.hytale.world.chunk.WorldChunk;
+
+import java.util.Arrays;
+
+/**
+ * In-memory stand-in for a server chunk, so benchmarks and load tests run
+ * without a server.
+ *
+ * Blocks are stored as BlockType ordinals in one flat array indexed by
+ * (y << 8) | (z << 4) | x, which keeps the stand-in's own cost small next
+ * to the code being measured.
+ */
+public class FakeChunk implements WorldChunk, BlockAccessor {
+
+    static final BlockType[] TYPES = BlockType.values();
+
+    final short[] blocks = new short[16 * 16 * 256];
+    private final int chunkX;
+    private final int chunkZ;
+    private int saveCount;
+
+    public FakeChunk(int chunkX, int chunkZ) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        Arrays.fill(blocks, (short) BlockType.AIR.ordinal());
+    }
+
+    @Override
+    public BlockAccessor getBlockAccessor() {
+        return this;
+    }
+
+    @Override
+    public void markNeedsSaving() {
+        saveCount++;
+    }
+
+    @Override
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    @Override
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    @Override
+    public BlockType getBlock(int x, int y, int z) {
+        return TYPES[blocks[index(x, y, z)]];
+    }
+
+    @Override
+    public void setBlock(int x, int y, int z, BlockType blockType) {
+        blocks[index(x, y, z)] = (short) blockType.ordinal();
+    }
+
+    /**
+     * @return How many times the chunk was marked for saving
+     */
+    public int getSaveCount() {
+        return saveCount;
+    }
+
+    static int index(int x, int y, int z) {
+        return (y << 8) | ((z & 15) << 4) | (x & 15);
+    }
+}
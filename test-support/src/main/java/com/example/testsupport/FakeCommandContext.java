@@ -0,0 +1,30 @@
+package com.example.testsupport;
+
+import com.hypixel.hytale.plugin.commands.CommandContext;
+import com.hypixel.hytale.plugin.commands.CommandSender;
+
+import java.util.Map;
+
+/**
+ * Command context stand-in with fixed arguments.
+ */
+public class FakeCommandContext implements CommandContext {
+
+    private final CommandSender sender;
+    private final Map<String, String> args;
+
+    public FakeCommandContext(CommandSender sender, Map<String, String> args) {
+        this.sender = sender;
+        this.args = args;
+    }
+
+    @Override
+    public CommandSender getSender() {
+        return sender;
+    }
+
+    @Override
+    public Map<String, String> getArgs() {
+        return args;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.testsupport;
+
+import com.hypixel.hytale.plugin.commands.AbstractCommand;
+import com.hypixel.hytale.plugin.commands.CommandRegistry;
+import com.hypixel.hytale.plugin.commands.CommandSender;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command registry stand-in that dispatches by command name.
+ */
+public class FakeCommandRegistry implements CommandRegistry {
+
+    private final Map<String, AbstractCommand> commands = new HashMap<>();
+
+    @Override
+    public void registerCommand(AbstractCommand command) {
+        commands.put(command.getName(), command);
+    }
+
+    /**
+     * Runs a registered command.
+     *
+     * @param name The command name, without the slash
+     * @param sender Who runs the command
+     * @param args Argument names mapped to their values
+     * @return true if the command exists
+     */
+    public boolean dispatch(String name, CommandSender sender, Map<String, String> args) {
+        AbstractCommand command = commands.get(name);
+        if (command == null) {
+            return false;
+        }
+        command.execute(new FakeCommandContext(sender, args));
+        return true;
+    }
+
+    /**
+     * @param name The command name, without the slash
+     * @return The registered command, or null if none
+     */
+    public AbstractCommand getCommand(String name) {
+        return commands.get(name);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.testsupport;
+
+import com.hypixel.hytale.event.EventBus;
+import com.hypixel.hytale.event.EventPriority;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Single-threaded event bus stand-in.
+ *
+ * Handlers are called in priority order (EARLY, NORMAL, LATE) and, within
+ * a priority, in registration order. Events are matched by exact class.
+ */
+public class FakeEventBus implements EventBus {
+
+    private final Map<Class<?>, Map<EventPriority, List<Consumer<Object>>>> handlers = new HashMap<>();
+
+    @Override
+    public <T> void register(Class<T> eventClass, Consumer<T> handler) {
+        register(eventClass, EventPriority.NORMAL, handler);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> void register(Class<T> eventClass, EventPriority priority, Consumer<T> handler) {
+        handlers.computeIfAbsent(eventClass, c -> new EnumMap<>(EventPriority.class))
+                .computeIfAbsent(priority, p -> new ArrayList<>())
+                .add((Consumer<Object>) handler);
+    }
+
+    /**
+     * Delivers an event to every handler registered for its class.
+     *
+     * @param event The event to deliver
+     * @return The event, for inspecting cancellation or modified fields
+     */
+    public <T> T post(T event) {
+        Map<EventPriority, List<Consumer<Object>>> byPriority = handlers.get(event.getClass());
+        if (byPriority != null) {
+            // EnumMap iterates in declaration order: EARLY, NORMAL, LATE
+            for (List<Consumer<Object>> list : byPriority.values()) {
+                for (int i = 0; i < list.size(); i++) {
+                    list.get(i).accept(event);
+                }
+            }
+        }
+        return event;
+    }
+
+    /**
+     * @param eventClass The event class
+     * @return The number of handlers registered for the class
+     */
+    public int getHandlerCount(Class<?> eventClass) {
+        Map<EventPriority, List<Consumer<Object>>> byPriority = handlers.get(eventClass);
+        if (byPriority == null) {
+            return 0;
+        }
+        int count = 0;
+        for (List<Consumer<Object>> list : byPriority.values()) {
+            count += list.size();
+        }
+        return count;
+    }
+}
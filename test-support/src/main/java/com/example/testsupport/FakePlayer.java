@@ -0,0 +1,76 @@
+package com.example.testsupport;
+
+import com.hypixel.hytale.entity.player.Player;
+import com.hypixel.hytale.world.Location;
+import com.hypixel.hytale.world.World;
+import net.kyori.adventure.text.Component;
+
+import java.util.UUID;
+
+/**
+ * Player stand-in that stays in one world and counts the messages it receives.
+ */
+public class FakePlayer implements Player {
+
+    private final String name;
+    private final World world;
+    private final UUID uuid = UUID.randomUUID();
+    private Location location;
+    private Component lastMessage;
+    private long messageCount;
+
+    public FakePlayer(World world) {
+        this("FakePlayer", world);
+    }
+
+    public FakePlayer(String name, World world) {
+        this.name = name;
+        this.world = world;
+        this.location = new Location(world, 0, 64, 0);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void sendMessage(Component message) {
+        lastMessage = message;
+        messageCount++;
+    }
+
+    @Override
+    public Location getLocation() {
+        return location;
+    }
+
+    @Override
+    public void teleport(Location location) {
+        this.location = location;
+    }
+
+    @Override
+    public World getWorld() {
+        return world;
+    }
+
+    @Override
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    /**
+     * @return The last message sent to this player, or null if none
+     */
+    public Component getLastMessage() {
+        return lastMessage;
+    }
+
+    /**
+     * @return How many messages were sent to this player
+     */
+    public long getMessageCount() {
+        return messageCount;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.testsupport;
+
+import com.example.world.SectionedBlockAccessor;
+import com.hypixel.hytale.world.block.BlockType;
+
+import java.util.Arrays;
+
+/**
+ * Memory chunk that also offers the section-level bulk operations.
+ *
+ * Keeps a per-section count of every block type, standing in for a
+ * palette, so sectionContains is a single array read.
+ */
+public class FakeSectionedChunk extends FakeChunk implements SectionedBlockAccessor {
+
+    private static final int SECTION_BLOCKS = 16 * 16 * 16;
+
+    private final int[][] counts = new int[16][TYPES.length];
+
+    public FakeSectionedChunk(int chunkX, int chunkZ) {
+        super(chunkX, chunkZ);
+        for (int[] section : counts) {
+            section[BlockType.AIR.ordinal()] = SECTION_BLOCKS;
+        }
+    }
+
+    @Override
+    public void setBlock(int x, int y, int z, BlockType blockType) {
+        int index = index(x, y, z);
+        int[] section = counts[y >> 4];
+        section[blocks[index]]--;
+        section[blockType.ordinal()]++;
+        blocks[index] = (short) blockType.ordinal();
+    }
+
+    @Override
+    public int fillSection(int sectionY, BlockType blockType) {
+        int start = sectionY * SECTION_BLOCKS;
+        int changed = SECTION_BLOCKS - counts[sectionY][blockType.ordinal()];
+        Arrays.fill(blocks, start, start + SECTION_BLOCKS, (short) blockType.ordinal());
+        Arrays.fill(counts[sectionY], 0);
+        counts[sectionY][blockType.ordinal()] = SECTION_BLOCKS;
+        return changed;
+    }
+
+    @Override
+    public boolean sectionContains(int sectionY, BlockType blockType) {
+        return counts[sectionY][blockType.ordinal()] > 0;
+    }
+
+    @Override
+    public int replaceInSection(int sectionY, BlockType fromType, BlockType toType) {
+        short from = (short) fromType.ordinal();
+        short to = (short) toType.ordinal();
+        int start = sectionY * SECTION_BLOCKS;
+        int changed = 0;
+
+        for (int i = start; i < start + SECTION_BLOCKS; i++) {
+            if (blocks[i] == from) {
+                blocks[i] = to;
+                changed++;
+            }
+        }
+
+        counts[sectionY][from] -= changed;
+        counts[sectionY][to] += changed;
+        return changed;
+    }
+
+    @Override
+    public void readSection(int sectionY, BlockType[] into) {
+        int start = sectionY * SECTION_BLOCKS;
+        for (int i = 0; i < SECTION_BLOCKS; i++) {
+            into[i] = TYPES[blocks[start + i]];
+        }
+    }
+
+    @Override
+    public void writeSection(int sectionY, BlockType[] blocks) {
+        int start = sectionY * SECTION_BLOCKS;
+        int[] section = counts[sectionY];
+        Arrays.fill(section, 0);
+        for (int i = 0; i < SECTION_BLOCKS; i++) {
+            int type = blocks[i].ordinal();
+            this.blocks[start + i] = (short) type;
+            section[type]++;
+        }
+    }
+}
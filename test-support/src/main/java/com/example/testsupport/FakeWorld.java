@@ -0,0 +1,44 @@
+package com.example.testsupport;
+
+import com.hypixel.hytale.world.World;
+import com.hypixel.hytale.world.chunk.WorldChunk;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory stand-in for a server world holding a fixed set of chunks.
+ *
+ * Chunks outside the loaded square are reported as not loaded (null),
+ * like an unloaded chunk on a real server. The set of chunks never
+ * changes after construction, so concurrent reads are safe.
+ */
+public class FakeWorld implements World {
+
+    private final Map<Long, FakeChunk> chunks = new HashMap<>();
+
+    /**
+     * Creates a square of loaded chunks around the origin.
+     *
+     * @param radius Chunks loaded in each direction from chunk (0, 0)
+     * @param sectioned true to use chunks with section-level bulk operations
+     */
+    public FakeWorld(int radius, boolean sectioned) {
+        for (int chunkX = -radius; chunkX <= radius; chunkX++) {
+            for (int chunkZ = -radius; chunkZ <= radius; chunkZ++) {
+                chunks.put(key(chunkX, chunkZ), sectioned
+                        ? new FakeSectionedChunk(chunkX, chunkZ)
+                        : new FakeChunk(chunkX, chunkZ));
+            }
+        }
+    }
+
+    @Override
+    public WorldChunk getChunkAt(int chunkX, int chunkZ) {
+        return chunks.get(key(chunkX, chunkZ));
+    }
+
+    private static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.testsupport;
+
+import java.util.Arrays;
+
+/**
+ * Records per-call latency and allocation for one kind of load event.
+ *
+ * Keeps up to a fixed number of latency samples (later samples overwrite
+ * earlier ones once full) and reports percentiles over them. Not
+ * thread-safe; the load driver records from its single event thread.
+ */
+public class LatencyRecorder {
+
+    private final String name;
+    private final long[] samples;
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+    private long allocatedBytes;
+
+    /**
+     * @param name Label used in the summary
+     * @param capacity Maximum number of latency samples kept for percentiles
+     */
+    public LatencyRecorder(String name, int capacity) {
+        this.name = name;
+        this.samples = new long[capacity];
+    }
+
+    /**
+     * Records one call.
+     *
+     * @param nanos How long the call took
+     * @param bytes How many bytes the call allocated
+     */
+    public void record(long nanos, long bytes) {
+        samples[(int) (count % samples.length)] = nanos;
+        count++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+        allocatedBytes += bytes;
+    }
+
+    /**
+     * @return The number of calls recorded
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets a latency percentile over the kept samples.
+     *
+     * @param percentile Percentile from 0 to 100
+     * @return The latency in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        int size = (int) Math.min(count, samples.length);
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+        return sorted[Math.max(0, Math.min(size - 1, index))];
+    }
+
+    /**
+     * @return Average bytes allocated per call
+     */
+    public double getBytesPerCall() {
+        return count == 0 ? 0 : (double) allocatedBytes / count;
+    }
+
+    /**
+     * @return One summary line with count, latency percentiles and allocation
+     */
+    public String summary() {
+        return String.format("%-10s count=%-9d mean=%7dns p50=%7dns p99=%8dns p99.9=%8dns max=%9dns alloc=%.0fB/call",
+                name, count, count == 0 ? 0 : totalNanos / count,
+                getPercentile(50), getPercentile(99), getPercentile(99.9), maxNanos, getBytesPerCall());
+    }
+}
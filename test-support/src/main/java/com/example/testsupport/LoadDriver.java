@@ -0,0 +1,270 @@
+package com.example.testsupport;
+
+import com.example.commands.CommandExamplePlugin;
+import com.example.events.EventExamplePlugin;
+import com.example.world.ChunkModifier;
+import com.example.world.WorldExamplePlugin;
+import com.hypixel.hytale.event.EventBus;
+import com.hypixel.hytale.event.player.PlayerChatEvent;
+import com.hypixel.hytale.event.player.PlayerJoinEvent;
+import com.hypixel.hytale.event.player.PlayerMoveEvent;
+import com.hypixel.hytale.event.player.PlayerQuitEvent;
+import com.hypixel.hytale.world.Location;
+import com.hypixel.hytale.world.block.BlockType;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Offline load test for the example mods.
+ *
+ * Enables the three example plugins against a fake event bus, command
+ * registry and world, joins N simulated players, then fires a mix of
+ * move, chat and command events at a target rate from a single thread
+ * (standing in for the game thread). Each call is timed and its
+ * allocation measured, and a summary per event kind is printed at the end.
+ *
+ * Usage:
+ * <pre>
+ * java -jar test-support/target/load-driver.jar [players] [eventsPerSecond] [seconds]
+ * </pre>
+ */
+public class LoadDriver {
+
+    /** Fake world size: chunks loaded in each direction from the origin. */
+    private static final int WORLD_RADIUS = 8;
+
+    /** Latency samples kept per event kind for percentiles. */
+    private static final int SAMPLE_CAPACITY = 1 << 20;
+
+    private static final String[] CHAT_MESSAGES = {
+            "hello everyone",
+            "anyone want to trade some oak logs?",
+            "!server restart in 5 minutes",
+            "that was a BADWORD move",
+            "gg",
+            "where is the spawn portal"
+    };
+
+    private final int players;
+    private final int eventsPerSecond;
+    private final int durationSeconds;
+    private int moveWeight = 80;
+    private int chatWeight = 15;
+    private int commandWeight = 5;
+
+    private final LatencyRecorder join = new LatencyRecorder("join", SAMPLE_CAPACITY);
+    private final LatencyRecorder move = new LatencyRecorder("move", SAMPLE_CAPACITY);
+    private final LatencyRecorder chat = new LatencyRecorder("chat", SAMPLE_CAPACITY);
+    private final LatencyRecorder command = new LatencyRecorder("command", SAMPLE_CAPACITY);
+    private final LatencyRecorder quit = new LatencyRecorder("quit", SAMPLE_CAPACITY);
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * @param players Number of simulated players
+     * @param eventsPerSecond Target rate of move, chat and command events combined
+     * @param durationSeconds How long to generate load for
+     */
+    public LoadDriver(int players, int eventsPerSecond, int durationSeconds) {
+        this.players = players;
+        this.eventsPerSecond = eventsPerSecond;
+        this.durationSeconds = durationSeconds;
+    }
+
+    /**
+     * Sets the relative frequency of each event kind (default 80/15/5).
+     *
+     * @param move Weight of move events
+     * @param chat Weight of chat messages
+     * @param command Weight of commands (/hello, /teleport, /setblock)
+     */
+    public void setMix(int move, int chat, int command) {
+        this.moveWeight = move;
+        this.chatWeight = chat;
+        this.commandWeight = command;
+    }
+
+    /**
+     * Runs the load test and prints a summary to standard output.
+     */
+    public void run() {
+        FakeWorld world = new FakeWorld(WORLD_RADIUS, false);
+        FakeEventBus eventBus = new FakeEventBus();
+        FakeCommandRegistry commands = new FakeCommandRegistry();
+
+        // Ground layer so /setblock and movement have terrain to work with
+        for (int chunkX = -WORLD_RADIUS; chunkX <= WORLD_RADIUS; chunkX++) {
+            for (int chunkZ = -WORLD_RADIUS; chunkZ <= WORLD_RADIUS; chunkZ++) {
+                ChunkModifier.fillCube(world.getChunkAt(chunkX, chunkZ), chunkX << 4, 0, chunkZ << 4,
+                        (chunkX << 4) + 15, 63, (chunkZ << 4) + 15, BlockType.STONE);
+            }
+        }
+
+        // Enable the plugins against the fakes instead of a server
+        EventExamplePlugin eventPlugin = new EventExamplePlugin() {
+            {
+                commandRegistry = commands;
+            }
+
+            @Override
+            public EventBus getEventRegistry() {
+                return eventBus;
+            }
+        };
+        CommandExamplePlugin commandPlugin = new CommandExamplePlugin() {
+            {
+                commandRegistry = commands;
+            }
+
+            @Override
+            public EventBus getEventRegistry() {
+                return eventBus;
+            }
+        };
+        WorldExamplePlugin worldPlugin = new WorldExamplePlugin() {
+            {
+                commandRegistry = commands;
+            }
+        };
+        eventPlugin.setup();
+        commandPlugin.setup();
+        worldPlugin.setup();
+
+        SplittableRandom random = new SplittableRandom(42);
+        int extent = WORLD_RADIUS * 16;
+        FakePlayer[] online = new FakePlayer[players];
+        for (int i = 0; i < players; i++) {
+            online[i] = new FakePlayer("Player" + i, world);
+            online[i].teleport(new Location(world, random.nextInt(-extent, extent), 64,
+                    random.nextInt(-extent, extent)));
+            PlayerJoinEvent event = new PlayerJoinEvent(online[i]);
+            long before = allocatedBytes();
+            long start = System.nanoTime();
+            eventBus.post(event);
+            join.record(System.nanoTime() - start, allocatedBytes() - before);
+        }
+
+        try {
+            generateLoad(world, eventBus, commands, online, random);
+        } finally {
+            for (FakePlayer player : online) {
+                PlayerQuitEvent event = new PlayerQuitEvent(player);
+                long before = allocatedBytes();
+                long start = System.nanoTime();
+                eventBus.post(event);
+                quit.record(System.nanoTime() - start, allocatedBytes() - before);
+            }
+
+            worldPlugin.teardown();
+            commandPlugin.teardown();
+            eventPlugin.teardown();
+        }
+
+        System.out.println(join.summary());
+        System.out.println(move.summary());
+        System.out.println(chat.summary());
+        System.out.println(command.summary());
+        System.out.println(quit.summary());
+    }
+
+    private void generateLoad(FakeWorld world, FakeEventBus eventBus, FakeCommandRegistry commands,
+                              FakePlayer[] online, SplittableRandom random) {
+        int totalWeight = moveWeight + chatWeight + commandWeight;
+        long interval = TimeUnit.SECONDS.toNanos(1) / eventsPerSecond;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long next = start;
+        long sent = 0;
+        int extent = WORLD_RADIUS * 16 - 1;
+
+        while (true) {
+            long now = System.nanoTime();
+            if (now >= end) {
+                break;
+            }
+            if (now < next) {
+                // Ahead of schedule - wait for the next slot
+                LockSupport.parkNanos(next - now);
+                continue;
+            }
+            next += interval;
+            sent++;
+
+            FakePlayer player = online[random.nextInt(online.length)];
+            int roll = random.nextInt(totalWeight);
+
+            if (roll < moveWeight) {
+                Location from = player.getLocation();
+                // Occasionally try to drop below Y=0 to exercise the cancelling path
+                double y = random.nextInt(1000) == 0 ? -1 : from.getY();
+                double x = Math.max(-extent, Math.min(extent, from.getX() + random.nextDouble(-0.6, 0.6)));
+                double z = Math.max(-extent, Math.min(extent, from.getZ() + random.nextDouble(-0.6, 0.6)));
+                Location to = new Location(world, x, y, z);
+                PlayerMoveEvent event = new PlayerMoveEvent(player, from, to);
+
+                long before = allocatedBytes();
+                long startCall = System.nanoTime();
+                eventBus.post(event);
+                move.record(System.nanoTime() - startCall, allocatedBytes() - before);
+
+                if (!event.isCancelled()) {
+                    player.teleport(to);
+                }
+            } else if (roll < moveWeight + chatWeight) {
+                PlayerChatEvent event = new PlayerChatEvent(player,
+                        CHAT_MESSAGES[random.nextInt(CHAT_MESSAGES.length)]);
+
+                long before = allocatedBytes();
+                long startCall = System.nanoTime();
+                eventBus.post(event);
+                chat.record(System.nanoTime() - startCall, allocatedBytes() - before);
+            } else {
+                String name;
+                Map<String, String> args;
+                Location at = player.getLocation();
+                switch (random.nextInt(3)) {
+                    case 0 -> {
+                        name = "hello";
+                        args = Map.of("player", online[random.nextInt(online.length)].getName());
+                    }
+                    case 1 -> {
+                        name = "teleport";
+                        args = Map.of("x", Integer.toString(random.nextInt(-extent, extent)),
+                                "y", "64", "z", Integer.toString(random.nextInt(-extent, extent)));
+                    }
+                    default -> {
+                        name = "setblock";
+                        args = Map.of("x", Integer.toString((int) at.getX()), "y", "64",
+                                "z", Integer.toString((int) at.getZ()), "blockType", "oak_planks");
+                    }
+                }
+
+                long before = allocatedBytes();
+                long startCall = System.nanoTime();
+                commands.dispatch(name, player, args);
+                command.record(System.nanoTime() - startCall, allocatedBytes() - before);
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Players: %d, target rate: %d/s, achieved: %.0f/s over %.1fs%n",
+                players, eventsPerSecond, sent / seconds, seconds);
+    }
+
+    private long allocatedBytes() {
+        return threads.getCurrentThreadAllocatedBytes();
+    }
+
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int eventsPerSecond = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        new LoadDriver(players, eventsPerSecond, seconds).run();
+    }
+}
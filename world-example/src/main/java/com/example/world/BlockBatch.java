@@ -0,0 +1,295 @@
+package com.example.world;
+
+import com.hypixel.hytale.world.block.BlockAccessor;
+import com.hypixel.hytale.world.block.BlockType;
+import com.hypixel.hytale.world.chunk.WorldChunk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A list of single-block placements, grouped by chunk and section so it can
+ * be applied one section at a time.
+ *
+ * The text format is one placement per line, the same arguments as
+ * /setblock:
+ * <pre>
+ * # x y z blockType
+ * 100 64 -50 stone
+ * 101 64 -50 oak_planks
+ * </pre>
+ * Blank lines and lines starting with '#' are ignored. Block names are
+ * resolved with a {@link BlockTypeResolver}, so aliases work too.
+ *
+ * The file is streamed into primitive arrays and sorted once by chunk,
+ * then by height, keeping file order for repeated positions (the last
+ * placement wins, as with separate /setblock commands).
+ *
+ * Immutable once read.
+ */
+public final class BlockBatch {
+
+    /** Most placements one batch may hold. */
+    public static final int MAX_ENTRIES = 1 << 22;
+
+    private static final int SECTIONS = ChunkSections.SECTION_COUNT;
+
+    /** Distinct chunks in ascending key order (see {@link ChunkHandleCache#chunkKey}). */
+    private final long[] chunkKeys;
+
+    /** Entries of section s in chunk c are [sectionStarts[c * SECTIONS + s], sectionStarts[c * SECTIONS + s + 1]). */
+    private final int[] sectionStarts;
+
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] zs;
+    private final BlockType[] types;
+
+    private BlockBatch(long[] chunkKeys, int[] sectionStarts, int[] xs, int[] ys, int[] zs, BlockType[] types) {
+        this.chunkKeys = chunkKeys;
+        this.sectionStarts = sectionStarts;
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+        this.types = types;
+    }
+
+    /**
+     * Reads a batch file.
+     *
+     * @param file The file to read
+     * @param blockTypes Resolves the block names in the file
+     * @return The batch, grouped by chunk
+     * @throws IOException If the file can't be read, or a line is malformed (the message names the line)
+     */
+    public static BlockBatch read(Path file, BlockTypeResolver blockTypes) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(reader, blockTypes);
+        }
+    }
+
+    /**
+     * Reads a batch from text in the batch file format.
+     *
+     * @param reader The text to read
+     * @param blockTypes Resolves the block names
+     * @return The batch, grouped by chunk
+     * @throws IOException If the text can't be read, or a line is malformed (the message names the line)
+     */
+    public static BlockBatch read(BufferedReader reader, BlockTypeResolver blockTypes) throws IOException {
+        int[] xs = new int[1024];
+        int[] ys = new int[1024];
+        int[] zs = new int[1024];
+        BlockType[] types = new BlockType[1024];
+        int count = 0;
+
+        int[] fields = new int[3];
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int start = skipSpaces(line, 0);
+            if (start == line.length() || line.charAt(start) == '#') {
+                continue;
+            }
+
+            // Three integers, then the block name
+            int position = start;
+            for (int f = 0; f < 3; f++) {
+                int end = nextSpace(line, position);
+                if (!parseInt(line, position, end, fields, f)) {
+                    throw new IOException("Line " + lineNumber + ": expected x y z blockType, got \""
+                            + line.trim() + "\"");
+                }
+                position = skipSpaces(line, end);
+            }
+            int nameEnd = nextSpace(line, position);
+            if (position == nameEnd || skipSpaces(line, nameEnd) != line.length()) {
+                throw new IOException("Line " + lineNumber + ": expected x y z blockType, got \""
+                        + line.trim() + "\"");
+            }
+
+            BlockType type = blockTypes.resolve(line.subSequence(position, nameEnd));
+            if (type == null) {
+                throw new IOException("Line " + lineNumber + ": unknown block type "
+                        + line.substring(position, nameEnd));
+            }
+            if (fields[1] < 0 || fields[1] > ChunkSections.MAX_Y) {
+                throw new IOException("Line " + lineNumber + ": Y must be between 0 and " + ChunkSections.MAX_Y);
+            }
+            if (count == MAX_ENTRIES) {
+                throw new IOException("Batch has more than " + MAX_ENTRIES + " placements");
+            }
+
+            if (count == xs.length) {
+                int capacity = count * 2;
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+                zs = Arrays.copyOf(zs, capacity);
+                types = Arrays.copyOf(types, capacity);
+            }
+            xs[count] = fields[0];
+            ys[count] = fields[1];
+            zs[count] = fields[2];
+            types[count] = type;
+            count++;
+        }
+
+        return group(xs, ys, zs, types, count);
+    }
+
+    /**
+     * @return Number of placements in the batch
+     */
+    public int size() {
+        return xs.length;
+    }
+
+    /**
+     * @return Number of distinct chunks the batch touches
+     */
+    public int getChunkCount() {
+        return chunkKeys.length;
+    }
+
+    /**
+     * @return The chunks the batch touches, as keys from {@link ChunkHandleCache#chunkKey}, in the order they are applied
+     */
+    long[] chunkKeys() {
+        return chunkKeys;
+    }
+
+    /**
+     * Writes the batch's placements in one section of a chunk, without
+     * marking the chunk for saving. Placements that match the block already
+     * there are skipped. Used as an {@link EditJob.SectionEdit}.
+     *
+     * @return The number of blocks changed
+     */
+    FillResult applySection(WorldChunk chunk, int sectionY) {
+        int chunkIndex = Arrays.binarySearch(chunkKeys,
+                ChunkHandleCache.chunkKey(chunk.getChunkX(), chunk.getChunkZ()));
+        if (chunkIndex < 0) {
+            return FillResult.UNCHANGED;
+        }
+        int from = sectionStarts[chunkIndex * SECTIONS + sectionY];
+        int to = sectionStarts[chunkIndex * SECTIONS + sectionY + 1];
+        if (from == to) {
+            return FillResult.UNCHANGED;
+        }
+
+        BlockAccessor accessor = chunk.getBlockAccessor();
+        int changed = 0;
+        for (int i = from; i < to; i++) {
+            if (accessor.getBlock(xs[i], ys[i], zs[i]) != types[i]) {
+                accessor.setBlock(xs[i], ys[i], zs[i], types[i]);
+                changed++;
+            }
+        }
+        if (changed == 0) {
+            return FillResult.UNCHANGED;
+        }
+
+        // Mixed block types: drop cached data for the section instead of updating it per block
+        ChunkModifier.sectionRewritten(chunk, sectionY);
+        return new FillResult(changed, 0, 1 << sectionY);
+    }
+
+    /** Sorts the parsed placements by chunk, then Y, then file order, and builds the section index. */
+    private static BlockBatch group(int[] xs, int[] ys, int[] zs, BlockType[] types, int count) {
+        // Distinct chunks, sorted
+        long[] entryChunks = new long[count];
+        for (int i = 0; i < count; i++) {
+            entryChunks[i] = ChunkHandleCache.chunkKey(xs[i] >> 4, zs[i] >> 4);
+        }
+        long[] distinct = entryChunks.clone();
+        Arrays.sort(distinct);
+        int chunkCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (chunkCount == 0 || distinct[i] != distinct[chunkCount - 1]) {
+                distinct[chunkCount++] = distinct[i];
+            }
+        }
+        long[] chunkKeys = Arrays.copyOf(distinct, chunkCount);
+
+        // One primitive sort on (chunk index, y, file position); MAX_ENTRIES keeps it within 63 bits
+        long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            long chunkIndex = Arrays.binarySearch(chunkKeys, entryChunks[i]);
+            order[i] = (chunkIndex << 40) | ((long) ys[i] << 32) | i;
+        }
+        Arrays.sort(order);
+
+        int[] sortedX = new int[count];
+        int[] sortedY = new int[count];
+        int[] sortedZ = new int[count];
+        BlockType[] sortedTypes = new BlockType[count];
+        int[] sectionStarts = new int[chunkCount * SECTIONS + 1];
+        int bucket = 0;
+        for (int i = 0; i < count; i++) {
+            int source = (int) order[i];
+            sortedX[i] = xs[source];
+            sortedY[i] = ys[source];
+            sortedZ[i] = zs[source];
+            sortedTypes[i] = types[source];
+
+            // Start every (chunk, section) bucket up to this entry's at i
+            int entryBucket = (int) (order[i] >>> 40) * SECTIONS + (sortedY[i] >> 4);
+            while (bucket <= entryBucket) {
+                sectionStarts[bucket++] = i;
+            }
+        }
+        while (bucket <= chunkCount * SECTIONS) {
+            sectionStarts[bucket++] = count;
+        }
+
+        return new BlockBatch(chunkKeys, sectionStarts, sortedX, sortedY, sortedZ, sortedTypes);
+    }
+
+    private static int skipSpaces(String line, int index) {
+        while (index < line.length() && Character.isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int nextSpace(String line, int index) {
+        while (index < line.length() && !Character.isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /** Parses line[start, end) as an int into fields[field]; false on bad syntax or overflow. */
+    private static boolean parseInt(String line, int start, int end, int[] fields, int field) {
+        if (start == end) {
+            return false;
+        }
+        boolean negative = line.charAt(start) == '-';
+        int i = negative || line.charAt(start) == '+' ? start + 1 : start;
+        if (i == end) {
+            return false;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = line.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE + 1L) {
+                return false;
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            return false;
+        }
+        fields[field] = (int) value;
+        return true;
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.world;
+
+import com.hypixel.hytale.world.block.BlockType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resolves block names typed by players to {@link BlockType}s.
+ *
+ * Every enum constant (in lower case) and every alias is stored in a trie
+ * built once when the plugin is set up. Lookups walk the trie directly over
+ * the input characters - case-insensitively, with '-' and ' ' read as '_' -
+ * so resolving a name doesn't allocate or throw, unlike
+ * {@code BlockType.valueOf(name.toUpperCase())}.
+ *
+ * For names that don't resolve, {@link #suggest} lists the known names
+ * sharing the longest matching prefix, shortest first, for "did you mean"
+ * replies and completion.
+ *
+ * Immutable once built, so it can be shared between threads.
+ */
+public final class BlockTypeResolver {
+
+    /** Short and common names for the block types. */
+    public static final Map<String, BlockType> DEFAULT_ALIASES = Map.of(
+            "grass", BlockType.GRASS_BLOCK,
+            "log", BlockType.OAK_LOG,
+            "wood", BlockType.OAK_LOG,
+            "planks", BlockType.OAK_PLANKS,
+            "cobble", BlockType.COBBLESTONE,
+            "diamond", BlockType.DIAMOND_BLOCK);
+
+    /** Characters a name can contain: a-z, 0-9 and '_'. */
+    private static final int ALPHABET = 37;
+    private static final int NONE = -1;
+
+    /** children[node * ALPHABET + c] is the child node for character c, or 0 (the root is never a child). */
+    private final int[] children;
+
+    /** The block type a node completes, and the name it was registered under. */
+    private final BlockType[] types;
+    private final String[] names;
+
+    /**
+     * Creates a resolver for all block types and the default aliases.
+     */
+    public BlockTypeResolver() {
+        this(DEFAULT_ALIASES);
+    }
+
+    /**
+     * @param aliases Extra names for block types; names may only use letters, digits, '_', '-' and ' '
+     */
+    public BlockTypeResolver(Map<String, BlockType> aliases) {
+        List<String> keys = new ArrayList<>();
+        List<BlockType> values = new ArrayList<>();
+        for (BlockType type : BlockType.values()) {
+            keys.add(type.name().toLowerCase(Locale.ROOT));
+            values.add(type);
+        }
+        aliases.forEach((alias, type) -> {
+            keys.add(alias.toLowerCase(Locale.ROOT));
+            values.add(type);
+        });
+
+        // Upper bound on nodes: one per character plus the root
+        int maxNodes = 1;
+        for (String key : keys) {
+            maxNodes += key.length();
+        }
+
+        int[] trie = new int[maxNodes * ALPHABET];
+        BlockType[] nodeTypes = new BlockType[maxNodes];
+        String[] nodeNames = new String[maxNodes];
+        int nodeCount = 1;
+
+        for (int k = 0; k < keys.size(); k++) {
+            String key = keys.get(k);
+            if (key.isEmpty()) {
+                throw new IllegalArgumentException("Empty block name");
+            }
+            int node = 0;
+            for (int i = 0; i < key.length(); i++) {
+                int c = index(key.charAt(i));
+                if (c == NONE) {
+                    throw new IllegalArgumentException("Invalid character in block name: " + key);
+                }
+                int child = trie[node * ALPHABET + c];
+                if (child == 0) {
+                    child = nodeCount++;
+                    trie[node * ALPHABET + c] = child;
+                }
+                node = child;
+            }
+            if (nodeTypes[node] != null && nodeTypes[node] != values.get(k)) {
+                throw new IllegalArgumentException("Block name " + key + " is already used for "
+                        + nodeTypes[node]);
+            }
+            nodeTypes[node] = values.get(k);
+            nodeNames[node] = normalize(key);
+        }
+
+        this.children = Arrays.copyOf(trie, nodeCount * ALPHABET);
+        this.types = Arrays.copyOf(nodeTypes, nodeCount);
+        this.names = Arrays.copyOf(nodeNames, nodeCount);
+    }
+
+    /**
+     * Resolves a block name or alias.
+     *
+     * @param name The name as typed, in any case
+     * @return The block type, or null if the name is unknown
+     */
+    public BlockType resolve(CharSequence name) {
+        // The root (empty name) never holds a type, so no special case is needed
+        int node = walk(name);
+        return node == NONE ? null : types[node];
+    }
+
+    /**
+     * Lists known names that complete the input, or, if it has no completions,
+     * that share its longest known prefix. Shorter names come first.
+     *
+     * @param input The (partial) name as typed
+     * @param limit Most suggestions to return
+     * @return Suggested names, empty if not even the first character matches
+     */
+    public List<String> suggest(CharSequence input, int limit) {
+        int node = 0;
+        for (int i = 0; i < input.length(); i++) {
+            int c = index(input.charAt(i));
+            int child = c == NONE ? 0 : children[node * ALPHABET + c];
+            if (child == 0) {
+                break;
+            }
+            node = child;
+        }
+        if (node == 0) {
+            return List.of();
+        }
+
+        List<String> found = new ArrayList<>();
+        collect(node, found);
+        found.sort(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+        return found.size() > limit ? List.copyOf(found.subList(0, limit)) : found;
+    }
+
+    /**
+     * @return Number of names and aliases known to the resolver
+     */
+    public int getNameCount() {
+        int count = 0;
+        for (BlockType type : types) {
+            if (type != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** Follows the input from the root; returns the node reached, or NONE if the input leaves the trie. */
+    private int walk(CharSequence name) {
+        int node = 0;
+        for (int i = 0; i < name.length(); i++) {
+            int c = index(name.charAt(i));
+            if (c == NONE) {
+                return NONE;
+            }
+            node = children[node * ALPHABET + c];
+            if (node == 0) {
+                return NONE;
+            }
+        }
+        return node;
+    }
+
+    private void collect(int node, List<String> found) {
+        if (names[node] != null) {
+            found.add(names[node]);
+        }
+        int base = node * ALPHABET;
+        for (int c = 0; c < ALPHABET; c++) {
+            int child = children[base + c];
+            if (child != 0) {
+                collect(child, found);
+            }
+        }
+    }
+
+    /** Maps a character to its trie index, folding case and separators; NONE if it can't appear in a name. */
+    private static int index(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= '0' && c <= '9') {
+            return 26 + (c - '0');
+        }
+        if (c == '_' || c == '-' || c == ' ') {
+            return 36;
+        }
+        return NONE;
+    }
+
+    private static String normalize(String key) {
+        return key.replace('-', '_').replace(' ', '_');
+    }
+}
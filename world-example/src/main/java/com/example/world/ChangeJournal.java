@@ -0,0 +1,327 @@
+package com.example.world;
+
+import com.hypixel.hytale.world.World;
+import com.hypixel.hytale.world.block.BlockAccessor;
+import com.hypixel.hytale.world.block.BlockType;
+import com.hypixel.hytale.world.chunk.WorldChunk;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opt-in undo history for ChunkModifier and RegionEditor operations.
+ *
+ * Before an operation writes a box, the journal records the prior state of
+ * every block in it. Blocks are stored as run-length encoded runs along the
+ * X axis (the innermost fill axis), each run being two ints: a packed
+ * start position within the chunk plus palette id, and a length. A fill
+ * over uniform terrain collapses to a handful of runs, so journaling a
+ * 1M-block fill costs kilobytes to a few megabytes rather than one object
+ * per block.
+ *
+ * Undo replays the runs through the same bulk-write path as fills, so
+ * runs covering whole sections are restored in one go.
+ *
+ * A journal belongs to one world and remembers chunks by their
+ * coordinates, not by reference, so recorded operations never keep a
+ * chunk in memory. Undo looks each chunk up in the world again, skips
+ * chunks that are no longer loaded and writes the others while holding
+ * their {@link ChunkLocks} lock, like every other write path in this mod.
+ *
+ * Usage:
+ * <pre>
+ * ChangeJournal journal = new ChangeJournal(world);
+ * ChunkModifier.fillCube(chunk, x1, y1, z1, x2, y2, z2, BlockType.STONE, journal);
+ * journal.undo();  // Puts back whatever was there before
+ * </pre>
+ */
+public class ChangeJournal {
+
+    /** Default number of operations kept before the oldest is forgotten. */
+    public static final int DEFAULT_MAX_OPERATIONS = 32;
+
+    private static final BlockType[] PALETTE = BlockType.values();
+
+    private final World world;
+    private final int maxOperations;
+    private final Deque<List<ChunkRecord>> operations = new ArrayDeque<>();
+    private List<ChunkRecord> pending = new ArrayList<>();
+
+    /**
+     * Creates a journal keeping the default number of operations.
+     *
+     * @param world The world whose chunks are recorded
+     */
+    public ChangeJournal(World world) {
+        this(world, DEFAULT_MAX_OPERATIONS);
+    }
+
+    /**
+     * Creates a journal keeping a fixed number of operations.
+     *
+     * @param world The world whose chunks are recorded
+     * @param maxOperations The number of operations that can be undone
+     */
+    public ChangeJournal(World world, int maxOperations) {
+        this.world = world;
+        this.maxOperations = maxOperations;
+    }
+
+    /**
+     * @return The world whose chunks this journal records
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Records the current state of a box before it is modified.
+     *
+     * The box is clipped to the chunk. Records accumulate into the pending
+     * operation until {@link #commit()} is called. Safe to call from
+     * several threads at once, for example from RegionEditor's chunk tasks.
+     *
+     * @param chunk The chunk about to be modified, which must be loaded in the journal's world
+     * @param minX Minimum X coordinate (world coords)
+     * @param minY Minimum Y coordinate
+     * @param minZ Minimum Z coordinate (world coords)
+     * @param maxX Maximum X coordinate (world coords)
+     * @param maxY Maximum Y coordinate
+     * @param maxZ Maximum Z coordinate (world coords)
+     * @throws IllegalArgumentException If the chunk isn't the journal's world's chunk at its coordinates
+     */
+    public void record(WorldChunk chunk, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        // Undo finds the chunk again by coordinates, so it has to be this world's
+        if (ChunkHandleCache.of(world).getCurrentChunk(chunk.getChunkX(), chunk.getChunkZ()) != chunk) {
+            throw new IllegalArgumentException("Chunk " + chunk.getChunkX() + ", " + chunk.getChunkZ()
+                    + " is not loaded in the journal's world");
+        }
+
+        int baseX = chunk.getChunkX() << 4;
+        int baseZ = chunk.getChunkZ() << 4;
+        int fromX = Math.max(minX, baseX);
+        int toX = Math.min(maxX, baseX + 15);
+        int fromY = Math.max(0, minY);
+        int toY = Math.min(ChunkSections.MAX_Y, maxY);
+        int fromZ = Math.max(minZ, baseZ);
+        int toZ = Math.min(maxZ, baseZ + 15);
+
+        if (fromX > toX || fromY > toY || fromZ > toZ) {
+            return;  // Box doesn't touch this chunk
+        }
+
+        // Read outside the lock so parallel chunk tasks don't serialize on it
+        BlockAccessor accessor = chunk.getBlockAccessor();
+        ChunkRecord record = new ChunkRecord(chunk.getChunkX(), chunk.getChunkZ());
+
+        // Y, then Z, then X ascending visits packed positions in increasing order
+        for (int y = fromY; y <= toY; y++) {
+            for (int z = fromZ; z <= toZ; z++) {
+                for (int x = fromX; x <= toX; x++) {
+                    record.append(packPosition(x, y, z), accessor.getBlock(x, y, z).ordinal());
+                }
+            }
+        }
+
+        synchronized (this) {
+            pending.add(record);
+        }
+    }
+
+    /**
+     * Closes the pending operation so it can be undone as one unit.
+     *
+     * @return true if the operation recorded anything
+     */
+    public synchronized boolean commit() {
+        if (pending.isEmpty()) {
+            return false;
+        }
+
+        operations.push(pending);
+        pending = new ArrayList<>();
+
+        while (operations.size() > maxOperations) {
+            operations.removeLast();
+        }
+        return true;
+    }
+
+    /**
+     * Restores the blocks changed by the most recent committed operation.
+     *
+     * Blocks that already have their recorded type are not written. Each
+     * changed chunk is marked for saving once. Chunks that are no longer
+     * loaded are left as they are; the operation is still removed.
+     *
+     * @return The number of blocks restored, or 0 if there is nothing to undo
+     */
+    public int undo() {
+        List<ChunkRecord> operation;
+        synchronized (this) {
+            operation = operations.poll();
+        }
+        if (operation == null) {
+            return 0;
+        }
+
+        ChunkHandleCache chunks = ChunkHandleCache.of(world);
+        int blocksRestored = 0;
+        Map<WorldChunk, Integer> modifiedSections = new IdentityHashMap<>();
+
+        // Newest record first, so overlapping records end on the oldest state
+        for (int i = operation.size() - 1; i >= 0; i--) {
+            ChunkRecord record = operation.get(i);
+            WorldChunk chunk = chunks.getCurrentChunk(record.chunkX, record.chunkZ);
+            if (chunk == null) {
+                continue;  // Not loaded any more
+            }
+            // Edit jobs and region edits may be writing this chunk from other threads
+            synchronized (ChunkLocks.of(chunk)) {
+                blocksRestored += record.replay(chunk);
+            }
+            modifiedSections.merge(chunk, record.modifiedSections, (a, b) -> a | b);
+        }
+
+        for (Map.Entry<WorldChunk, Integer> entry : modifiedSections.entrySet()) {
+            if (entry.getValue() == 0) {
+                continue;  // Already back to its recorded state
+            }
+            // Runs aren't boxes, so let the caches rebuild these chunks from scratch
+            WorldChunk chunk = entry.getKey();
+            HeightmapCache.shared().invalidate(chunk);
+            SafeLocationIndex.shared().invalidate(chunk);
+            ChunkModifier.markModified(chunk, entry.getValue());
+        }
+
+        return blocksRestored;
+    }
+
+    /**
+     * @return The number of committed operations that can be undone
+     */
+    public synchronized int getOperationCount() {
+        return operations.size();
+    }
+
+    /**
+     * @return Approximate heap used by recorded runs, in bytes
+     */
+    public synchronized long getMemoryUsage() {
+        long bytes = 0;
+        for (List<ChunkRecord> operation : operations) {
+            for (ChunkRecord record : operation) {
+                bytes += (long) record.runs.length * Integer.BYTES;
+            }
+        }
+        for (ChunkRecord record : pending) {
+            bytes += (long) record.runs.length * Integer.BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * Discards all recorded operations, including the pending one.
+     */
+    public synchronized void clear() {
+        operations.clear();
+        pending = new ArrayList<>();
+    }
+
+    /** Packs a block's position within its chunk into 16 bits (Y, then Z, then X). */
+    private static int packPosition(int x, int y, int z) {
+        return (y << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    /**
+     * Run-length encoded prior state of one box within one chunk.
+     *
+     * Runs are stored as int pairs: (start position << 16 | palette id), length.
+     */
+    private static final class ChunkRecord {
+
+        final int chunkX;
+        final int chunkZ;
+        int[] runs = new int[16];
+        int size;
+
+        /** Sections changed by the last replay, one bit per section. */
+        int modifiedSections;
+
+        ChunkRecord(int chunkX, int chunkZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        void append(int position, int paletteId) {
+            if (size > 0) {
+                int last = size - 2;
+                int start = runs[last] >>> 16;
+                int length = runs[last + 1];
+                // Extend the last run if this block continues it with the same type
+                if ((runs[last] & 0xFFFF) == paletteId && start + length == position) {
+                    runs[last + 1] = length + 1;
+                    return;
+                }
+            }
+
+            if (size + 2 > runs.length) {
+                runs = Arrays.copyOf(runs, runs.length * 2);
+            }
+            runs[size] = (position << 16) | paletteId;
+            runs[size + 1] = 1;
+            size += 2;
+        }
+
+        /**
+         * Writes every run back into the chunk, skipping blocks that already match.
+         *
+         * @param chunk The chunk as currently loaded at the recorded coordinates
+         * @return The number of blocks changed
+         */
+        int replay(WorldChunk chunk) {
+            BlockAccessor accessor = chunk.getBlockAccessor();
+            modifiedSections = 0;
+            int baseX = chunkX << 4;
+            int baseZ = chunkZ << 4;
+            int blocksChanged = 0;
+
+            for (int i = 0; i < size; i += 2) {
+                int position = runs[i] >>> 16;
+                int end = position + runs[i + 1];
+                BlockType blockType = PALETTE[runs[i] & 0xFFFF];
+
+                while (position < end) {
+                    // Whole sections inside the run go through the bulk path
+                    if ((position & (ChunkSections.BLOCKS_PER_SECTION - 1)) == 0
+                            && end - position >= ChunkSections.BLOCKS_PER_SECTION) {
+                        int changed = ChunkSections.fillSection(accessor, baseX, position >> 12, baseZ, blockType);
+                        if (changed > 0) {
+                            blocksChanged += changed;
+                            modifiedSections |= 1 << (position >> 12);
+                        }
+                        position += ChunkSections.BLOCKS_PER_SECTION;
+                        continue;
+                    }
+
+                    int x = baseX + (position & 15);
+                    int y = position >> 8;
+                    int z = baseZ + ((position >> 4) & 15);
+                    if (accessor.getBlock(x, y, z) != blockType) {
+                        accessor.setBlock(x, y, z, blockType);
+                        blocksChanged++;
+                        modifiedSections |= 1 << (y >> 4);
+                    }
+                    position++;
+                }
+            }
+
+            return blocksChanged;
+        }
+    }
+}
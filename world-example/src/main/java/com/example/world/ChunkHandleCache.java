@@ -0,0 +1,250 @@
+package com.example.world;
+
+import com.hypixel.hytale.world.World;
+import com.hypixel.hytale.world.chunk.WorldChunk;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers recent {@code World.getChunkAt} results for one world.
+ *
+ * Edits tend to hit the same few chunks over and over (a run of /setblock
+ * commands, the rings of a safe-location search), so the last chunks
+ * looked up are kept in a small open-addressing table keyed by the packed
+ * chunk coordinates. Each slot holds the key and a weak reference to the
+ * chunk in one immutable entry, so lookups are lock-free and the cache
+ * never keeps an unloaded chunk alive.
+ *
+ * The server API has no unload event or loaded flag, so a cached chunk is
+ * only known to be gone once it has been garbage collected. Until then
+ * {@link #getChunk} may return a chunk the server has already unloaded.
+ * That is fine for reads that tolerate slightly stale blocks (the safe
+ * location search), but anything that writes a chunk must use
+ * {@link #getCurrentChunk}, which always asks the world: a write into an
+ * unloaded chunk object is silently lost.
+ *
+ * Unloaded chunks (null results) are never cached.
+ *
+ * Usage:
+ * <pre>
+ * // Reads
+ * WorldChunk chunk = ChunkHandleCache.of(world).getChunk(x >> 4, z >> 4);
+ * // Writes
+ * WorldChunk chunk = ChunkHandleCache.of(world).getCurrentChunk(x >> 4, z >> 4);
+ * </pre>
+ */
+public final class ChunkHandleCache {
+
+    /** Chunks remembered per world. */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /** Slots checked for a key; a miss replaces an empty or cleared one, or the first. */
+    private static final int MAX_PROBES = 4;
+
+    private static final Map<World, ChunkHandleCache> CACHES = new WeakHashMap<>();
+
+    /** Most recently requested world, so repeated calls skip the registry lock. */
+    private static volatile ChunkHandleCache last;
+
+    private final WeakReference<World> world;
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a cache for one world.
+     *
+     * @param world The world to look chunks up in
+     * @param capacity The number of chunks to remember, rounded up to a power of two
+     */
+    public ChunkHandleCache(World world, int capacity) {
+        int size = Integer.highestOneBit(Math.max(MAX_PROBES, capacity) - 1) << 1;
+        this.world = new WeakReference<>(world);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Gets the shared cache for a world, creating it on first use.
+     *
+     * @param world The world
+     * @return Its chunk handle cache
+     */
+    public static ChunkHandleCache of(World world) {
+        ChunkHandleCache cache = last;
+        if (cache != null && cache.world.get() == world) {
+            return cache;
+        }
+        synchronized (CACHES) {
+            cache = CACHES.computeIfAbsent(world, w -> new ChunkHandleCache(w, DEFAULT_CAPACITY));
+        }
+        last = cache;
+        return cache;
+    }
+
+    /**
+     * Forgets every shared cache, e.g. when the plugin is disabled.
+     */
+    public static void clearAll() {
+        synchronized (CACHES) {
+            CACHES.clear();
+        }
+        last = null;
+    }
+
+    /**
+     * Packs chunk coordinates into one long; sorting the keys groups chunks by X.
+     *
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @return The packed key
+     */
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets a chunk, from the cache if it was looked up recently.
+     *
+     * A cached chunk may have been unloaded since it was looked up; use
+     * {@link #getCurrentChunk} to write to it.
+     *
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @return The chunk, or null if it wasn't loaded when it was looked up
+     */
+    public WorldChunk getChunk(int chunkX, int chunkZ) {
+        long key = chunkKey(chunkX, chunkZ);
+        int home = slot(key);
+        int free = -1;
+
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int index = (home + probe) & mask;
+            Entry entry = slots.get(index);
+            if (entry == null) {
+                if (free < 0) {
+                    free = index;
+                }
+                continue;
+            }
+            WorldChunk chunk = entry.get();
+            if (chunk == null) {
+                if (free < 0) {
+                    free = index;  // Collected; reuse the slot
+                }
+            } else if (entry.key == key) {
+                hits.increment();
+                return chunk;
+            }
+        }
+
+        misses.increment();
+        World target = world.get();
+        WorldChunk chunk = target == null ? null : target.getChunkAt(chunkX, chunkZ);
+        if (chunk != null) {
+            // Racing misses may overwrite each other; the loser just misses again next time
+            slots.set(free >= 0 ? free : home, new Entry(key, chunk));
+        }
+        return chunk;
+    }
+
+    /**
+     * Gets a chunk straight from the world, for code that writes to it.
+     *
+     * The result replaces any cached entry for the chunk, so later
+     * {@link #getChunk} calls see a reloaded chunk rather than the old one.
+     * Not counted as a hit or a miss.
+     *
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @return The chunk, or null if it isn't loaded
+     */
+    public WorldChunk getCurrentChunk(int chunkX, int chunkZ) {
+        World target = world.get();
+        WorldChunk chunk = target == null ? null : target.getChunkAt(chunkX, chunkZ);
+        long key = chunkKey(chunkX, chunkZ);
+        int home = slot(key);
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int index = (home + probe) & mask;
+            Entry entry = slots.get(index);
+            if (entry != null && entry.key == key && entry.get() != chunk) {
+                // Stale or unloaded; a later getChunk looks it up again
+                slots.compareAndSet(index, entry, chunk == null ? null : new Entry(key, chunk));
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Forgets one chunk, e.g. when the caller knows it was unloaded.
+     *
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     */
+    public void invalidate(int chunkX, int chunkZ) {
+        long key = chunkKey(chunkX, chunkZ);
+        int home = slot(key);
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int index = (home + probe) & mask;
+            Entry entry = slots.get(index);
+            if (entry != null && entry.key == key) {
+                slots.compareAndSet(index, entry, null);
+            }
+        }
+    }
+
+    /**
+     * Forgets every chunk.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    /**
+     * @return getChunk lookups answered from the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return getChunk lookups that had to ask the world
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The fraction of getChunk lookups answered from the cache, from 0.0 to 1.0
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * One cached chunk; immutable, so a slot is replaced in a single write.
+     */
+    private static final class Entry extends WeakReference<WorldChunk> {
+
+        final long key;
+
+        Entry(long key, WorldChunk chunk) {
+            super(chunk);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.world;
+
+import com.hypixel.hytale.world.chunk.WorldChunk;
+
+/**
+ * Locks that keep this mod's own writers from editing the same chunk at once.
+ *
+ * /setblock runs on command threads, queued edits on the edit scheduler's
+ * tick thread and region edits on RegionEditor's pool. Each holds the
+ * lock of the chunk it is writing for the whole read-compare-write, so a
+ * queued edit never interleaves with a /setblock or region edit of the
+ * same chunk. {@link HeightmapCache} scans and stores a column under the
+ * same lock, so it never caches a height from before a write.
+ *
+ * Chunks share a fixed set of locks by coordinates, so unrelated chunks
+ * rarely wait on each other. A writer holds at most one of these locks at
+ * a time.
+ *
+ * Writes made by the server itself (players breaking blocks, world
+ * generation) don't take these locks; the server API has no way to run
+ * code on the world's own thread or to lock a chunk.
+ */
+final class ChunkLocks {
+
+    private static final int STRIPES = 64;
+
+    private static final Object[] LOCKS = new Object[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            LOCKS[i] = new Object();
+        }
+    }
+
+    private ChunkLocks() {
+    }
+
+    /**
+     * Gets the lock guarding writes to a chunk.
+     *
+     * @param chunk The chunk
+     * @return The lock to synchronize on
+     */
+    static Object of(WorldChunk chunk) {
+        long hash = ChunkHandleCache.chunkKey(chunk.getChunkX(), chunk.getChunkZ()) * 0x9E3779B97F4A7C15L;
+        return LOCKS[(int) (hash >>> 58)];
+    }
+}
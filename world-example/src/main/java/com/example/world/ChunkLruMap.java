@@ -0,0 +1,133 @@
+package com.example.world;
+
+import com.hypixel.hytale.world.chunk.WorldChunk;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded per-chunk data that never keeps a chunk alive.
+ *
+ * WorldChunk doesn't say which world it belongs to, so values are keyed by
+ * the packed chunk coordinates together with the chunk object's identity
+ * hash: chunks at the same coordinates in different worlds (or a chunk
+ * and its reloaded replacement) get separate entries instead of evicting
+ * each other on every access. Each entry holds its chunk through a weak
+ * reference and reads as a miss if it belongs to another chunk object;
+ * entries whose chunk was collected are dropped on the next put. Entries
+ * are evicted least recently used first, so the map holds at most a fixed
+ * number of values no matter how many chunks come and go.
+ *
+ * Used by {@link HeightmapCache} and {@link SafeLocationIndex}. Not
+ * thread-safe: callers synchronize on the map.
+ *
+ * @param <V> The data kept per chunk
+ */
+final class ChunkLruMap<V> {
+
+    private final Map<ChunkId, Entry<V>> entries;
+    private final ReferenceQueue<WorldChunk> collected = new ReferenceQueue<>();
+
+    /**
+     * @param capacity The maximum number of chunks kept
+     */
+    ChunkLruMap(int capacity) {
+        // Access-ordered map evicts the least recently used chunk first
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ChunkId, Entry<V>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets a chunk's value and marks it as recently used.
+     *
+     * @return The value, or null if the chunk has none
+     */
+    V get(WorldChunk chunk) {
+        ChunkId id = ChunkId.of(chunk);
+        Entry<V> entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.get() != chunk) {
+            entries.remove(id);  // Stale: another chunk that happened to share the key
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Sets a chunk's value, replacing any it had.
+     */
+    void put(WorldChunk chunk, V value) {
+        expunge();
+        ChunkId id = ChunkId.of(chunk);
+        entries.put(id, new Entry<>(id, chunk, value, collected));
+    }
+
+    /**
+     * Forgets a chunk's value.
+     */
+    void remove(WorldChunk chunk) {
+        ChunkId id = ChunkId.of(chunk);
+        Entry<V> entry = entries.get(id);
+        if (entry != null && (entry.get() == chunk || entry.get() == null)) {
+            entries.remove(id);
+        }
+    }
+
+    void clear() {
+        entries.clear();
+        while (collected.poll() != null) {
+            // Already gone from the map
+        }
+    }
+
+    /**
+     * @return The number of entries, including any whose chunk was collected but not yet dropped
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drops the entries of chunks that have been collected.
+     */
+    private void expunge() {
+        Reference<? extends WorldChunk> reference;
+        while ((reference = collected.poll()) != null) {
+            Entry<?> entry = (Entry<?>) reference;
+            // Only if the slot still holds this entry, not a newer one for the same key
+            entries.remove(entry.id, entry);
+        }
+    }
+
+    /**
+     * Which chunk an entry belongs to.
+     */
+    private record ChunkId(long coordinates, int identity) {
+
+        static ChunkId of(WorldChunk chunk) {
+            return new ChunkId(ChunkHandleCache.chunkKey(chunk.getChunkX(), chunk.getChunkZ()),
+                    System.identityHashCode(chunk));
+        }
+    }
+
+    private static final class Entry<V> extends WeakReference<WorldChunk> {
+
+        final ChunkId id;
+        final V value;
+
+        Entry(ChunkId id, WorldChunk chunk, V value, ReferenceQueue<WorldChunk> queue) {
+            super(chunk, queue);
+            this.id = id;
+            this.value = value;
+        }
+    }
+}
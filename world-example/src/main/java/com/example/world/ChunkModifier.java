@@ -1,9 +1,11 @@
 package com.example.world;
 
+import com.example.common.SafeLocations;
 import com.hypixel.hytale.world.chunk.WorldChunk;
 import com.hypixel.hytale.world.block.BlockAccessor;
 import com.hypixel.hytale.world.block.BlockType;
 import com.hypixel.hytale.world.Location;
+import com.hypixel.hytale.world.World;
 
 /**
  * Helper class demonstrating batch block operations on chunks.
@@ -17,7 +19,9 @@ import com.hypixel.hytale.world.Location;
  *
  * Best practices demonstrated:
  * - Batch operations for efficiency
- * - Marking chunks dirty only once after all changes
+ * - Skipping writes that wouldn't change a block
+ * - Marking chunks dirty only once after all changes, and only if
+ *   something changed, recording the modified sections in {@link DirtySections}
  * - Validation before modification
  * - Clear method documentation
  *
@@ -40,6 +44,52 @@ public class ChunkModifier {
      */
     public static int fillCube(WorldChunk chunk, int x1, int y1, int z1,
                                int x2, int y2, int z2, BlockType blockType) {
+        return fillCubeBulk(chunk, x1, y1, z1, x2, y2, z2, blockType).blocksChanged();
+    }
+
+    /**
+     * Fills a cubic area and records the previous blocks so the fill can be undone.
+     *
+     * @param chunk The chunk to modify
+     * @param x1 First corner X coordinate (world coords)
+     * @param y1 First corner Y coordinate
+     * @param z1 First corner Z coordinate (world coords)
+     * @param x2 Second corner X coordinate (world coords)
+     * @param y2 Second corner Y coordinate
+     * @param z2 Second corner Z coordinate (world coords)
+     * @param blockType The block type to fill with
+     * @param journal The journal for the chunk's world to record the operation in
+     * @return The number of blocks changed
+     */
+    public static int fillCube(WorldChunk chunk, int x1, int y1, int z1,
+                               int x2, int y2, int z2, BlockType blockType, ChangeJournal journal) {
+        journal.record(chunk, Math.min(x1, x2), Math.min(y1, y2), Math.min(z1, z2),
+                Math.max(x1, x2), Math.max(y1, y2), Math.max(z1, z2));
+        int blocksChanged = fillCube(chunk, x1, y1, z1, x2, y2, z2, blockType);
+        journal.commit();
+        return blocksChanged;
+    }
+
+    /**
+     * Fills a cubic area with a specific block type, writing whole sections in bulk.
+     *
+     * Any 16x16x16 section that the fill covers completely is written in one
+     * go (see {@link SectionedBlockAccessor}). Only the partial edges of the
+     * fill fall back to per-block writes. Blocks that already have the
+     * type are not written.
+     *
+     * @param chunk The chunk to modify
+     * @param x1 First corner X coordinate (world coords)
+     * @param y1 First corner Y coordinate
+     * @param z1 First corner Z coordinate (world coords)
+     * @param x2 Second corner X coordinate (world coords)
+     * @param y2 Second corner Y coordinate
+     * @param z2 Second corner Z coordinate (world coords)
+     * @param blockType The block type to fill with
+     * @return The number of blocks changed, how many sections were written in bulk, and which sections changed
+     */
+    public static FillResult fillCubeBulk(WorldChunk chunk, int x1, int y1, int z1,
+                                          int x2, int y2, int z2, BlockType blockType) {
         // Ensure coordinates are in correct order (min to max)
         int minX = Math.min(x1, x2);
         int maxX = Math.max(x1, x2);
@@ -50,65 +100,188 @@ public class ChunkModifier {
 
         // Validate Y coordinates (world height limits)
         minY = Math.max(0, minY);
-        maxY = Math.min(255, maxY);
+        maxY = Math.min(ChunkSections.MAX_Y, maxY);
+
+        FillResult result = fillBox(chunk, minX, minY, minZ, maxX, maxY, maxZ, blockType);
+
+        // Mark chunk as needing saving (only once after all changes, and only if any block changed)
+        markModified(chunk, result.modifiedSections());
+
+        return result;
+    }
 
+    /**
+     * Fills an already normalized box without marking the chunk for saving.
+     *
+     * Shared by {@link #fillCubeBulk}, {@link RegionEditor} and
+     * {@link EditScheduler}, which mark each chunk once after all of its
+     * sub-boxes are written.
+     *
+     * @return The number of blocks changed, how many sections were written in bulk, and which sections changed
+     */
+    static FillResult fillBox(WorldChunk chunk, int minX, int minY, int minZ,
+                              int maxX, int maxY, int maxZ, BlockType blockType) {
         BlockAccessor accessor = chunk.getBlockAccessor();
         int blocksChanged = 0;
+        int bulkSections = 0;
+        int modifiedSections = 0;
 
-        // Iterate through all blocks in the cube
-        for (int x = minX; x <= maxX; x++) {
-            for (int y = minY; y <= maxY; y++) {
-                for (int z = minZ; z <= maxZ; z++) {
-                    // Set the block
-                    accessor.setBlock(x, y, z, blockType);
-                    blocksChanged++;
+        // Whole sections can only be bulk-written if the fill spans the chunk's full 16x16 footprint
+        int baseX = chunk.getChunkX() << 4;
+        int baseZ = chunk.getChunkZ() << 4;
+        int lastX = baseX + ChunkSections.SECTION_SIZE - 1;
+        int lastZ = baseZ + ChunkSections.SECTION_SIZE - 1;
+        boolean coversFootprint = minX <= baseX && maxX >= lastX && minZ <= baseZ && maxZ >= lastZ;
+        boolean exactFootprint = minX == baseX && maxX == lastX && minZ == baseZ && maxZ == lastZ;
+
+        // Work through the fill one section-high slice at a time
+        int sliceMinY = minY;
+        while (sliceMinY <= maxY) {
+            int sectionY = sliceMinY >> 4;
+            int sliceMaxY = Math.min(maxY, (sectionY << 4) + ChunkSections.SECTION_SIZE - 1);
+            boolean wholeSection = coversFootprint && (sliceMinY & 15) == 0 && (sliceMaxY & 15) == 15;
+            int sliceChanged = 0;
+
+            if (wholeSection) {
+                sliceChanged = ChunkSections.fillSection(accessor, baseX, sectionY, baseZ, blockType);
+                if (sliceChanged > 0 && accessor instanceof SectionedBlockAccessor) {
+                    bulkSections++;
                 }
             }
+
+            // Per-block writes for partial slices, and for any part of the fill outside the chunk
+            if (!wholeSection || !exactFootprint) {
+                for (int x = minX; x <= maxX; x++) {
+                    for (int y = sliceMinY; y <= sliceMaxY; y++) {
+                        for (int z = minZ; z <= maxZ; z++) {
+                            if (wholeSection && x >= baseX && x <= lastX && z >= baseZ && z <= lastZ) {
+                                continue;  // Already written by the bulk path
+                            }
+                            if (accessor.getBlock(x, y, z) != blockType) {
+                                accessor.setBlock(x, y, z, blockType);
+                                sliceChanged++;
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (sliceChanged > 0) {
+                blocksChanged += sliceChanged;
+                modifiedSections |= 1 << sectionY;
+            }
+            sliceMinY = sliceMaxY + 1;
         }
 
-        // Mark chunk as needing saving (only once after all changes)
-        chunk.markNeedsSaving();
+        if (blocksChanged > 0) {
+            blocksWritten(chunk, minX, minY, minZ, maxX, maxY, maxZ, blockType);
+        }
 
-        return blocksChanged;
+        return new FillResult(blocksChanged, bulkSections, modifiedSections);
     }
 
     /**
      * Replaces all blocks of one type with another in a chunk.
      *
+     * If the chunk's accessor implements {@link SectionedBlockAccessor}, each
+     * section's palette is checked first: sections without fromType are
+     * skipped entirely and the rest are remapped in place. Otherwise every
+     * block in the chunk is checked individually, one section at a time.
+     *
      * @param chunk The chunk to modify
      * @param fromType The block type to replace
      * @param toType The block type to replace with
      * @return The number of blocks changed
      */
     public static int replaceBlocks(WorldChunk chunk, BlockType fromType, BlockType toType) {
+        int blocksChanged = 0;
+        int modifiedSections = 0;
+
+        // Work section by section so sections without fromType can be skipped
+        for (int sectionY = 0; sectionY < ChunkSections.SECTION_COUNT; sectionY++) {
+            int changed = replaceInSection(chunk, sectionY, fromType, toType);
+            if (changed > 0) {
+                blocksChanged += changed;
+                modifiedSections |= 1 << sectionY;
+            }
+        }
+
+        markModified(chunk, modifiedSections);
+
+        return blocksChanged;
+    }
+
+    /**
+     * Replaces all blocks of one type with another in a single section,
+     * without marking the chunk for saving.
+     *
+     * Shared by {@link #replaceBlocks} and {@link EditScheduler}, which
+     * spreads a replacement across ticks one section at a time.
+     *
+     * @return The number of blocks changed
+     */
+    static int replaceInSection(WorldChunk chunk, int sectionY, BlockType fromType, BlockType toType) {
+        if (fromType == toType) {
+            return 0;  // Nothing would change
+        }
         BlockAccessor accessor = chunk.getBlockAccessor();
         int blocksChanged = 0;
 
-        // Get chunk bounds (chunks are 16x16 horizontally, full world height vertically)
-        int chunkX = chunk.getChunkX() * 16;
-        int chunkZ = chunk.getChunkZ() * 16;
-
-        // Iterate through all blocks in the chunk
-        for (int x = chunkX; x < chunkX + 16; x++) {
-            for (int z = chunkZ; z < chunkZ + 16; z++) {
-                for (int y = 0; y < 256; y++) {
-                    // Check if this block matches the type we're replacing
-                    BlockType currentBlock = accessor.getBlock(x, y, z);
-                    if (currentBlock == fromType) {
-                        accessor.setBlock(x, y, z, toType);
-                        blocksChanged++;
+        if (accessor instanceof SectionedBlockAccessor sectioned) {
+            // Check the section's palette first and only touch it if it contains fromType
+            if (sectioned.sectionContains(sectionY, fromType)) {
+                blocksChanged = sectioned.replaceInSection(sectionY, fromType, toType);
+            }
+        } else {
+            // Get section bounds (16x16x16)
+            int chunkX = chunk.getChunkX() * 16;
+            int chunkZ = chunk.getChunkZ() * 16;
+            int baseY = sectionY * 16;
+
+            // Iterate through all blocks in the section
+            for (int x = chunkX; x < chunkX + 16; x++) {
+                for (int z = chunkZ; z < chunkZ + 16; z++) {
+                    for (int y = baseY; y < baseY + 16; y++) {
+                        // Check if this block matches the type we're replacing
+                        BlockType currentBlock = accessor.getBlock(x, y, z);
+                        if (currentBlock == fromType) {
+                            accessor.setBlock(x, y, z, toType);
+                            blocksChanged++;
+                        }
                     }
                 }
             }
         }
 
-        if (blocksChanged > 0) {
-            chunk.markNeedsSaving();
+        if (blocksChanged > 0 && (fromType == BlockType.AIR || toType == BlockType.AIR)) {
+            // Column heights may have moved anywhere in the chunk, safe spots only near this section
+            HeightmapCache.shared().invalidate(chunk);
+            SafeLocationIndex.shared().invalidate(chunk, sectionY << 4, (sectionY << 4) + 15);
         }
 
         return blocksChanged;
     }
 
+    /**
+     * Replaces all blocks of one type with another and records the previous
+     * blocks so the replacement can be undone.
+     *
+     * @param chunk The chunk to modify
+     * @param fromType The block type to replace
+     * @param toType The block type to replace with
+     * @param journal The journal for the chunk's world to record the operation in
+     * @return The number of blocks changed
+     */
+    public static int replaceBlocks(WorldChunk chunk, BlockType fromType, BlockType toType,
+                                    ChangeJournal journal) {
+        int baseX = chunk.getChunkX() << 4;
+        int baseZ = chunk.getChunkZ() << 4;
+        journal.record(chunk, baseX, 0, baseZ, baseX + 15, ChunkSections.MAX_Y, baseZ + 15);
+        int blocksChanged = replaceBlocks(chunk, fromType, toType);
+        journal.commit();
+        return blocksChanged;
+    }
+
     /**
      * Creates a hollow cube outline with a specific block type.
      *
@@ -131,28 +304,76 @@ public class ChunkModifier {
         int minZ = Math.min(z1, z2);
         int maxZ = Math.max(z1, z2);
 
+        FillResult result = outlineBox(chunk, minX, minY, minZ, maxX, maxY, maxZ,
+                minX, maxX, minZ, maxZ, blockType);
+
+        markModified(chunk, result.modifiedSections());
+        return result.blocksChanged();
+    }
+
+    /**
+     * Creates a hollow cube outline and records the previous blocks so it can be undone.
+     *
+     * @param chunk The chunk to modify
+     * @param x1 First corner X coordinate (world coords)
+     * @param y1 First corner Y coordinate
+     * @param z1 First corner Z coordinate (world coords)
+     * @param x2 Second corner X coordinate (world coords)
+     * @param y2 Second corner Y coordinate
+     * @param z2 Second corner Z coordinate (world coords)
+     * @param blockType The block type for the outline
+     * @param journal The journal for the chunk's world to record the operation in
+     * @return The number of blocks changed
+     */
+    public static int createHollowCube(WorldChunk chunk, int x1, int y1, int z1,
+                                       int x2, int y2, int z2, BlockType blockType, ChangeJournal journal) {
+        journal.record(chunk, Math.min(x1, x2), Math.min(y1, y2), Math.min(z1, z2),
+                Math.max(x1, x2), Math.max(y1, y2), Math.max(z1, z2));
+        int blocksChanged = createHollowCube(chunk, x1, y1, z1, x2, y2, z2, blockType);
+        journal.commit();
+        return blocksChanged;
+    }
+
+    /**
+     * Writes the outline of a normalized box, restricted to a range of columns.
+     *
+     * Only columns with fromX <= x <= toX and fromZ <= z <= toZ are visited,
+     * which lets {@link RegionEditor} draw one chunk's share of a larger outline.
+     * Blocks that already have the type are not written. The chunk is not
+     * marked for saving.
+     *
+     * @return The number of blocks changed and which sections changed
+     */
+    static FillResult outlineBox(WorldChunk chunk, int minX, int minY, int minZ,
+                          int maxX, int maxY, int maxZ,
+                          int fromX, int toX, int fromZ, int toZ, BlockType blockType) {
         BlockAccessor accessor = chunk.getBlockAccessor();
         int blocksChanged = 0;
+        int modifiedSections = 0;
 
         // Only set blocks on the edges of the cube
-        for (int x = minX; x <= maxX; x++) {
+        for (int x = fromX; x <= toX; x++) {
             for (int y = minY; y <= maxY; y++) {
-                for (int z = minZ; z <= maxZ; z++) {
+                for (int z = fromZ; z <= toZ; z++) {
                     // Check if this position is on an edge
                     boolean isEdge = (x == minX || x == maxX) ||
                                     (y == minY || y == maxY) ||
                                     (z == minZ || z == maxZ);
 
-                    if (isEdge) {
+                    if (isEdge && accessor.getBlock(x, y, z) != blockType) {
                         accessor.setBlock(x, y, z, blockType);
                         blocksChanged++;
+                        modifiedSections |= 1 << (y >> 4);
                     }
                 }
             }
         }
 
-        chunk.markNeedsSaving();
-        return blocksChanged;
+        if (blocksChanged > 0) {
+            blocksWritten(chunk, fromX, minY, fromZ, toX, maxY, toZ, blockType);
+        }
+
+        return new FillResult(blocksChanged, 0, modifiedSections);
     }
 
     /**
@@ -166,6 +387,7 @@ public class ChunkModifier {
     public static int clearColumn(WorldChunk chunk, int x, int z) {
         BlockAccessor accessor = chunk.getBlockAccessor();
         int blocksChanged = 0;
+        int modifiedSections = 0;
 
         // Replace all blocks in this column with air
         for (int y = 0; y < 256; y++) {
@@ -173,11 +395,13 @@ public class ChunkModifier {
             if (currentBlock != BlockType.AIR) {
                 accessor.setBlock(x, y, z, BlockType.AIR);
                 blocksChanged++;
+                modifiedSections |= 1 << (y >> 4);
             }
         }
 
         if (blocksChanged > 0) {
-            chunk.markNeedsSaving();
+            blocksWritten(chunk, x, 0, z, x, ChunkSections.MAX_Y, z, BlockType.AIR);
+            markModified(chunk, modifiedSections);
         }
 
         return blocksChanged;
@@ -186,23 +410,17 @@ public class ChunkModifier {
     /**
      * Gets the highest non-air block at the given X, Z coordinates.
      *
+     * Uses the shared {@link HeightmapCache}, so repeated queries for the
+     * same column don't rescan it from the top of the world.
+     *
      * @param chunk The chunk to search
      * @param x X coordinate (world coords)
      * @param z Z coordinate (world coords)
      * @return The Y coordinate of the highest non-air block, or -1 if none found
      */
     public static int getHighestBlockAt(WorldChunk chunk, int x, int z) {
-        BlockAccessor accessor = chunk.getBlockAccessor();
-
-        // Start from the top and work down
-        for (int y = 255; y >= 0; y--) {
-            BlockType block = accessor.getBlock(x, y, z);
-            if (block != BlockType.AIR) {
-                return y;
-            }
-        }
-
-        return -1;  // No solid blocks found
+        // Answered from the per-chunk heightmap; the column is only scanned on a cache miss
+        return HeightmapCache.shared().getHighestBlockAt(chunk, x, z);
     }
 
     /**
@@ -216,22 +434,63 @@ public class ChunkModifier {
      * @return true if the position is safe
      */
     public static boolean isSafeLocation(WorldChunk chunk, int x, int y, int z) {
-        if (y < 1 || y > 253) {
-            return false;  // Too close to world boundaries
-        }
+        // Shared with the teleport pipeline in the command mod
+        return SafeLocations.isSafe(chunk, x, y, z);
+    }
 
-        BlockAccessor accessor = chunk.getBlockAccessor();
+    /**
+     * Finds the nearest position that is safe for a player to teleport to.
+     *
+     * Searches outward from (x, z) in rings using the shared
+     * {@link SafeLocationIndex}, so repeated searches over the same area
+     * don't re-read the blocks.
+     *
+     * @param world The world to search
+     * @param x Start X coordinate (world coords)
+     * @param y Preferred Y coordinate (player feet position)
+     * @param z Start Z coordinate (world coords)
+     * @param radius Maximum horizontal distance to search, in blocks
+     * @return A location at the center of the safe block, or null if none was found
+     */
+    public static Location findNearestSafeLocation(World world, int x, int y, int z, int radius) {
+        return SafeLocationIndex.shared().findNearest(world, x, y, z, radius);
+    }
 
-        // Check for solid block below
-        BlockType below = accessor.getBlock(x, y - 1, z);
-        if (below == BlockType.AIR) {
-            return false;
+    /**
+     * Marks a chunk for saving and records its modified sections in the
+     * shared {@link DirtySections}. Does nothing if no section changed.
+     *
+     * Every write path in this mod calls this instead of markNeedsSaving().
+     *
+     * @param chunk The chunk that was written
+     * @param sectionMask Bit n set for each modified section n
+     */
+    static void markModified(WorldChunk chunk, int sectionMask) {
+        if (sectionMask != 0) {
+            DirtySections.shared().mark(chunk, sectionMask);
+            chunk.markNeedsSaving();
         }
+    }
 
-        // Check for air at feet and head level
-        BlockType feet = accessor.getBlock(x, y, z);
-        BlockType head = accessor.getBlock(x, y + 1, z);
+    /**
+     * Keeps the shared caches current after every block in a box was written with one type.
+     *
+     * Called by every write path in this mod, including SetBlockCommand.
+     */
+    static void blocksWritten(WorldChunk chunk, int minX, int minY, int minZ,
+                              int maxX, int maxY, int maxZ, BlockType blockType) {
+        HeightmapCache.shared().onBoxWritten(chunk, minX, minY, minZ, maxX, maxY, maxZ, blockType);
+        SafeLocationIndex.shared().invalidate(chunk, minY, maxY);
+    }
 
-        return feet == BlockType.AIR && head == BlockType.AIR;
+    /**
+     * Drops cached data for a section whose blocks were rewritten with mixed types.
+     *
+     * Used by {@link BlockBatch} and {@link RegionSnapshot}, where updating the caches block by block
+     * would cost more than rebuilding them on the next query.
+     */
+    static void sectionRewritten(WorldChunk chunk, int sectionY) {
+        HeightmapCache.shared().invalidate(chunk);
+        SafeLocationIndex.shared().invalidate(chunk, sectionY << 4, (sectionY << 4) + ChunkSections.SECTION_SIZE - 1);
     }
 }
@@ -0,0 +1,133 @@
+package com.example.world;
+
+import com.hypixel.hytale.world.block.BlockAccessor;
+import com.hypixel.hytale.world.block.BlockType;
+
+/**
+ * Constants and helpers for working with 16x16x16 chunk sections.
+ *
+ * A chunk is 16 blocks wide, 16 blocks deep and 256 blocks tall, which
+ * splits into 16 stacked sections. Section Y is simply block Y >> 4.
+ */
+final class ChunkSections {
+
+    static final int SECTION_SIZE = 16;
+    static final int SECTION_COUNT = 16;
+    static final int BLOCKS_PER_SECTION = SECTION_SIZE * SECTION_SIZE * SECTION_SIZE;
+    static final int MAX_Y = 255;
+
+    private static final BlockType[] BLOCK_TYPES = BlockType.values();
+
+    private ChunkSections() {
+    }
+
+    /**
+     * Writes a whole section, using the accessor's bulk path when it has one.
+     *
+     * Blocks that already have the type are left alone: a bulk accessor
+     * skips a section that holds nothing else, and the per-block fallback
+     * only writes blocks that differ.
+     *
+     * @param accessor The chunk's block accessor
+     * @param baseX World X of the chunk's first column (chunkX * 16)
+     * @param sectionY Section index (0-15)
+     * @param baseZ World Z of the chunk's first column (chunkZ * 16)
+     * @param blockType The block type to fill with
+     * @return The number of blocks changed
+     */
+    static int fillSection(BlockAccessor accessor, int baseX, int sectionY, int baseZ,
+                           BlockType blockType) {
+        if (accessor instanceof SectionedBlockAccessor sectioned) {
+            if (isUniform(sectioned, sectionY, blockType)) {
+                return 0;
+            }
+            return sectioned.fillSection(sectionY, blockType);
+        }
+
+        // No bulk path available - write the section block by block
+        int baseY = sectionY << 4;
+        int changed = 0;
+        for (int y = baseY; y < baseY + SECTION_SIZE; y++) {
+            for (int z = baseZ; z < baseZ + SECTION_SIZE; z++) {
+                for (int x = baseX; x < baseX + SECTION_SIZE; x++) {
+                    if (accessor.getBlock(x, y, z) != blockType) {
+                        accessor.setBlock(x, y, z, blockType);
+                        changed++;
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Checks whether every block in a section already has one type, using only palette queries.
+     */
+    static boolean isUniform(SectionedBlockAccessor accessor, int sectionY, BlockType blockType) {
+        for (BlockType other : BLOCK_TYPES) {
+            if (other != blockType && accessor.sectionContains(sectionY, other)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies a whole section into an array, using the accessor's bulk path when it has one.
+     *
+     * @param accessor The chunk's block accessor
+     * @param baseX World X of the chunk's first column (chunkX * 16)
+     * @param sectionY Section index (0-15)
+     * @param baseZ World Z of the chunk's first column (chunkZ * 16)
+     * @param into Receives the section's blocks, indexed by (y << 8) | (z << 4) | x
+     */
+    static void readSection(BlockAccessor accessor, int baseX, int sectionY, int baseZ, BlockType[] into) {
+        if (accessor instanceof SectionedBlockAccessor sectioned) {
+            sectioned.readSection(sectionY, into);
+            return;
+        }
+
+        int baseY = sectionY << 4;
+        int index = 0;
+        for (int y = baseY; y < baseY + SECTION_SIZE; y++) {
+            for (int z = baseZ; z < baseZ + SECTION_SIZE; z++) {
+                for (int x = baseX; x < baseX + SECTION_SIZE; x++) {
+                    into[index++] = accessor.getBlock(x, y, z);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a whole section from an array, using the accessor's bulk path when it has one.
+     *
+     * The per-block fallback only writes blocks that differ from the
+     * section's current contents.
+     *
+     * @param accessor The chunk's block accessor
+     * @param baseX World X of the chunk's first column (chunkX * 16)
+     * @param sectionY Section index (0-15)
+     * @param baseZ World Z of the chunk's first column (chunkZ * 16)
+     * @param blocks The section's blocks, indexed by (y << 8) | (z << 4) | x
+     * @param current The section's blocks as they are now, from {@link #readSection}
+     */
+    static void writeSection(BlockAccessor accessor, int baseX, int sectionY, int baseZ,
+                             BlockType[] blocks, BlockType[] current) {
+        if (accessor instanceof SectionedBlockAccessor sectioned) {
+            sectioned.writeSection(sectionY, blocks);
+            return;
+        }
+
+        int baseY = sectionY << 4;
+        int index = 0;
+        for (int y = baseY; y < baseY + SECTION_SIZE; y++) {
+            for (int z = baseZ; z < baseZ + SECTION_SIZE; z++) {
+                for (int x = baseX; x < baseX + SECTION_SIZE; x++, index++) {
+                    if (blocks[index] != current[index]) {
+                        accessor.setBlock(x, y, z, blocks[index]);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.world;
+
+import com.hypixel.hytale.world.chunk.WorldChunk;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Records which 16x16x16 sections of each chunk this mod has changed.
+ *
+ * WorldChunk only offers markNeedsSaving() for the whole chunk, so every
+ * write path in this mod also records a bit per modified section here
+ * (bit n is section n, block Y >> 4). Persistence or network code can then
+ * {@link #drain} a chunk's mask and save or resend only those sections.
+ *
+ * Writes that leave a block unchanged are skipped and never set a bit, so
+ * a chunk with no bits set has not been changed by this mod since its last
+ * drain.
+ *
+ * Chunks are held weakly, so unloaded chunks drop out on their own.
+ *
+ * Usage:
+ * <pre>
+ * int sections = DirtySections.shared().drain(chunk);
+ * for (int s = 0; s &lt; 16; s++) {
+ *     if ((sections &amp; (1 &lt;&lt; s)) != 0) { ... }
+ * }
+ * </pre>
+ */
+public class DirtySections {
+
+    private static final DirtySections SHARED = new DirtySections();
+
+    private final Map<WorldChunk, int[]> masks = new WeakHashMap<>();
+
+    /**
+     * Gets the tracker fed by ChunkModifier, RegionEditor, EditScheduler and SetBlockCommand.
+     *
+     * @return The shared tracker
+     */
+    public static DirtySections shared() {
+        return SHARED;
+    }
+
+    /**
+     * Records modified sections of a chunk.
+     *
+     * @param chunk The chunk
+     * @param sectionMask Bit n set for each modified section n
+     */
+    public void mark(WorldChunk chunk, int sectionMask) {
+        if (sectionMask == 0) {
+            return;
+        }
+        synchronized (masks) {
+            masks.computeIfAbsent(chunk, c -> new int[1])[0] |= sectionMask;
+        }
+    }
+
+    /**
+     * Gets the sections of a chunk modified since it was last drained.
+     *
+     * @param chunk The chunk
+     * @return Bit n set for each modified section n, or 0 if none
+     */
+    public int get(WorldChunk chunk) {
+        synchronized (masks) {
+            int[] mask = masks.get(chunk);
+            return mask == null ? 0 : mask[0];
+        }
+    }
+
+    /**
+     * Gets and forgets the sections of a chunk modified since it was last drained,
+     * e.g. after writing them to disk.
+     *
+     * @param chunk The chunk
+     * @return Bit n set for each modified section n, or 0 if none
+     */
+    public int drain(WorldChunk chunk) {
+        synchronized (masks) {
+            int[] mask = masks.remove(chunk);
+            return mask == null ? 0 : mask[0];
+        }
+    }
+
+    /**
+     * @return The number of chunks with modified sections
+     */
+    public int getChunkCount() {
+        synchronized (masks) {
+            return masks.size();
+        }
+    }
+
+    /**
+     * Forgets every recorded section.
+     */
+    public void clear() {
+        synchronized (masks) {
+            masks.clear();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.world;
+
+import com.hypixel.hytale.world.World;
+import com.hypixel.hytale.world.chunk.WorldChunk;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A large edit queued on an {@link EditScheduler}.
+ *
+ * The job is split into units of one section of one chunk. Chunks are
+ * processed in order, and each changed chunk is marked for saving once,
+ * after its last section has been written, with its modified sections
+ * recorded in {@link DirtySections}. A job that fails or is cancelled
+ * partway through a chunk still marks the sections it already wrote.
+ *
+ * A chunk is looked up in the world again before each of its sections,
+ * since it may be unloaded between ticks. If it was unloaded, the rest of
+ * it is skipped; if it was reloaded, it is written again from its first
+ * section, because the earlier writes went to the old chunk object.
+ *
+ * Callers can poll {@link #getProgress()} or wait on {@link #completion()}.
+ */
+public final class EditJob {
+
+    private final World world;
+    private final long[] chunkKeys;
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final int chunksAlongZ;
+    private final int chunkCount;
+    private final int firstSection;
+    private final int lastSection;
+    private final SectionEdit edit;
+    private final int unitsTotal;
+    private final CompletableFuture<RegionResult> completion = new CompletableFuture<>();
+
+    // Only touched from the thread running EditScheduler.tick(), or by close() once that has stopped
+    private int chunkIndex;
+    private int sectionY;
+    private WorldChunk currentChunk;
+    private int currentChunkX;
+    private int currentChunkZ;
+    private int currentChunkSections;
+    private long currentChunkBlocks;
+    private int currentChunkBulkSections;
+    private long blocksChanged;
+    private int bulkSections;
+    private int sectionsModified;
+    private int chunksModified;
+    private int chunksSkipped;
+
+    private volatile int unitsDone;
+
+    EditJob(World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ,
+            int firstSection, int lastSection, SectionEdit edit) {
+        this.world = world;
+        this.chunkKeys = null;
+        this.minChunkX = minChunkX;
+        this.minChunkZ = minChunkZ;
+        this.chunksAlongZ = maxChunkZ - minChunkZ + 1;
+        this.chunkCount = (maxChunkX - minChunkX + 1) * chunksAlongZ;
+        this.firstSection = firstSection;
+        this.lastSection = lastSection;
+        this.edit = edit;
+        this.unitsTotal = chunkCount * (lastSection - firstSection + 1);
+    }
+
+    /**
+     * Creates a job over a list of chunks rather than a rectangle.
+     *
+     * @param chunkKeys Chunks in the order to process them, packed with {@link ChunkHandleCache#chunkKey}
+     */
+    EditJob(World world, long[] chunkKeys, int firstSection, int lastSection, SectionEdit edit) {
+        this.world = world;
+        this.chunkKeys = chunkKeys;
+        this.minChunkX = 0;
+        this.minChunkZ = 0;
+        this.chunksAlongZ = 1;
+        this.chunkCount = chunkKeys.length;
+        this.firstSection = firstSection;
+        this.lastSection = lastSection;
+        this.edit = edit;
+        this.unitsTotal = chunkCount * (lastSection - firstSection + 1);
+    }
+
+    /**
+     * @return The fraction of the job that has been applied, from 0.0 to 1.0
+     */
+    public double getProgress() {
+        return unitsTotal == 0 ? 1.0 : (double) unitsDone / unitsTotal;
+    }
+
+    /**
+     * @return true once every chunk in the job has been processed
+     */
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    /**
+     * Gets a future that completes with the job's totals once it has finished.
+     *
+     * The future completes on the thread running the scheduler, or with a
+     * CancellationException if the scheduler is closed first.
+     *
+     * @return The completion future
+     */
+    public CompletableFuture<RegionResult> completion() {
+        return completion;
+    }
+
+    /**
+     * Applies one unit of work.
+     *
+     * @return true if the job has finished
+     */
+    boolean step() {
+        if (chunkIndex >= chunkCount) {
+            return finish();
+        }
+
+        ChunkHandleCache chunks = ChunkHandleCache.of(world);
+        if (currentChunk == null) {
+            if (chunkKeys != null) {
+                currentChunkX = (int) (chunkKeys[chunkIndex] >> 32);
+                currentChunkZ = (int) chunkKeys[chunkIndex];
+            } else {
+                currentChunkX = minChunkX + chunkIndex / chunksAlongZ;
+                currentChunkZ = minChunkZ + chunkIndex % chunksAlongZ;
+            }
+            currentChunk = chunks.getCurrentChunk(currentChunkX, currentChunkZ);
+
+            if (currentChunk == null) {
+                // Not loaded - skip all of its sections
+                chunksSkipped++;
+                unitsDone += lastSection - firstSection + 1;
+                chunkIndex++;
+                return chunkIndex >= chunkCount && finish();
+            }
+
+            startChunk();
+        } else {
+            // The chunk may have been unloaded or reloaded since the last tick
+            WorldChunk chunk = chunks.getCurrentChunk(currentChunkX, currentChunkZ);
+            if (chunk == null) {
+                flushChunk();
+                chunksSkipped++;
+                unitsDone += lastSection - sectionY + 1;
+                currentChunk = null;
+                chunkIndex++;
+                return chunkIndex >= chunkCount && finish();
+            }
+            if (chunk != currentChunk) {
+                // Earlier sections went to the old object; write the new one from the start
+                flushChunk();
+                unitsDone -= sectionY - firstSection;
+                currentChunk = chunk;
+                startChunk();
+            }
+        }
+
+        FillResult result;
+        synchronized (ChunkLocks.of(currentChunk)) {
+            try {
+                result = edit.apply(currentChunk, sectionY);
+            } catch (RuntimeException e) {
+                // The section may be partly written
+                currentChunkSections |= 1 << sectionY;
+                throw e;
+            }
+        }
+        currentChunkBlocks += result.blocksChanged();
+        currentChunkBulkSections += result.bulkSections();
+        currentChunkSections |= result.modifiedSections();
+        unitsDone++;
+
+        if (++sectionY > lastSection) {
+            // Chunk finished - save it once, if anything in it changed
+            blocksChanged += currentChunkBlocks;
+            bulkSections += currentChunkBulkSections;
+            if (currentChunkSections != 0) {
+                sectionsModified += Integer.bitCount(currentChunkSections);
+                chunksModified++;
+            }
+            flushChunk();
+            currentChunk = null;
+            chunkIndex++;
+        }
+
+        return chunkIndex >= chunkCount && finish();
+    }
+
+    /**
+     * Fails the job, first marking any sections already written in the
+     * chunk it was partway through so they are saved.
+     */
+    void fail(Throwable error) {
+        if (currentChunk != null) {
+            flushChunk();
+            currentChunk = null;
+        }
+        completion.completeExceptionally(error);
+    }
+
+    private void startChunk() {
+        sectionY = firstSection;
+        currentChunkSections = 0;
+        currentChunkBlocks = 0;
+        currentChunkBulkSections = 0;
+    }
+
+    /**
+     * Marks the current chunk's written sections for saving.
+     */
+    private void flushChunk() {
+        if (currentChunkSections != 0) {
+            ChunkModifier.markModified(currentChunk, currentChunkSections);
+            currentChunkSections = 0;
+        }
+    }
+
+    private boolean finish() {
+        completion.complete(new RegionResult(blocksChanged, bulkSections, sectionsModified,
+                chunksModified, chunksSkipped));
+        return true;
+    }
+
+    /**
+     * One section's worth of an edit.
+     */
+    @FunctionalInterface
+    interface SectionEdit {
+        FillResult apply(WorldChunk chunk, int sectionY);
+    }
+}
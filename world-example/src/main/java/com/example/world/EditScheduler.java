@@ -0,0 +1,218 @@
+package com.example.world;
+
+import com.hypixel.hytale.world.World;
+import com.hypixel.hytale.world.block.BlockType;
+
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spreads large world edits out over time.
+ *
+ * A big fillCube or replaceBlocks run inside a command holds up that
+ * command's thread, and the chunks it writes, for as long as it takes. The
+ * scheduler instead queues edits as {@link EditJob}s and applies them a
+ * section at a time from {@link #tick()}, stopping once the time budget
+ * for that call is used up. Jobs run in submission order, and each job
+ * walks its chunks in order so consecutive writes stay within the same
+ * chunk.
+ *
+ * Usage:
+ * <pre>
+ * EditJob job = scheduler.submitFill(world, 0, 0, 0, 511, 255, 511, BlockType.AIR);
+ * job.completion().thenAccept(result -> ...);
+ * </pre>
+ *
+ * tick() is meant to be called regularly, from one thread at a time.
+ * WorldExamplePlugin calls it every 50 ms from a TickDriver thread, not
+ * from the server's game thread (the API offers no way to run there).
+ * Each unit of work holds its chunk's {@link ChunkLocks} lock, so it
+ * never interleaves with /setblock or RegionEditor writes to that chunk.
+ * Jobs can be submitted from any thread.
+ */
+public class EditScheduler {
+
+    /** Default time budget per call to tick() (5 ms of every 50 ms when driven at tick rate). */
+    public static final long DEFAULT_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final Queue<EditJob> jobs = new ConcurrentLinkedQueue<>();
+    private volatile long budgetNanos;
+    private volatile boolean closed;
+
+    /**
+     * Creates a scheduler with the default 5 ms budget.
+     */
+    public EditScheduler() {
+        this(DEFAULT_BUDGET_NANOS);
+    }
+
+    /**
+     * Creates a scheduler with a custom time budget.
+     *
+     * @param budgetNanos Time each call to tick() may spend applying edits, in nanoseconds
+     */
+    public EditScheduler(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Queues a fill of a box with a specific block type.
+     *
+     * @param world The world to modify
+     * @param x1 First corner X coordinate (world coords)
+     * @param y1 First corner Y coordinate
+     * @param z1 First corner Z coordinate (world coords)
+     * @param x2 Second corner X coordinate (world coords)
+     * @param y2 Second corner Y coordinate
+     * @param z2 Second corner Z coordinate (world coords)
+     * @param blockType The block type to fill with
+     * @return The queued job
+     */
+    public EditJob submitFill(World world, int x1, int y1, int z1,
+                              int x2, int y2, int z2, BlockType blockType) {
+        int minX = Math.min(x1, x2);
+        int maxX = Math.max(x1, x2);
+        int minY = Math.max(0, Math.min(y1, y2));
+        int maxY = Math.min(ChunkSections.MAX_Y, Math.max(y1, y2));
+        int minZ = Math.min(z1, z2);
+        int maxZ = Math.max(z1, z2);
+
+        if (minY > maxY) {
+            // Entirely outside the world height - a job with no chunks finishes on the next tick
+            return submit(new EditJob(world, 0, 0, -1, 0, 0, 0, (chunk, sectionY) -> null));
+        }
+
+        return submit(new EditJob(world, minX >> 4, minZ >> 4, maxX >> 4, maxZ >> 4,
+                minY >> 4, maxY >> 4, (chunk, sectionY) -> {
+                    // Clip the box to this chunk and section
+                    int baseX = chunk.getChunkX() << 4;
+                    int baseZ = chunk.getChunkZ() << 4;
+                    return ChunkModifier.fillBox(chunk,
+                            Math.max(minX, baseX), Math.max(minY, sectionY << 4), Math.max(minZ, baseZ),
+                            Math.min(maxX, baseX + 15), Math.min(maxY, (sectionY << 4) + 15),
+                            Math.min(maxZ, baseZ + 15), blockType);
+                }));
+    }
+
+    /**
+     * Queues a replacement of one block type with another across a range of chunks.
+     *
+     * Each chunk is replaced in full, like {@link ChunkModifier#replaceBlocks}.
+     *
+     * @param world The world to modify
+     * @param chunkX1 First corner chunk X coordinate
+     * @param chunkZ1 First corner chunk Z coordinate
+     * @param chunkX2 Second corner chunk X coordinate
+     * @param chunkZ2 Second corner chunk Z coordinate
+     * @param fromType The block type to replace
+     * @param toType The block type to replace with
+     * @return The queued job
+     */
+    public EditJob submitReplace(World world, int chunkX1, int chunkZ1, int chunkX2, int chunkZ2,
+                                 BlockType fromType, BlockType toType) {
+        return submit(new EditJob(world, Math.min(chunkX1, chunkX2), Math.min(chunkZ1, chunkZ2),
+                Math.max(chunkX1, chunkX2), Math.max(chunkZ1, chunkZ2), 0, ChunkSections.SECTION_COUNT - 1,
+                (chunk, sectionY) -> {
+                    int changed = ChunkModifier.replaceInSection(chunk, sectionY, fromType, toType);
+                    return changed == 0 ? FillResult.UNCHANGED : new FillResult(changed, 0, 1 << sectionY);
+                }));
+    }
+
+    /**
+     * Queues a batch of single-block placements.
+     *
+     * The batch is applied chunk by chunk, one section per unit of work,
+     * and each chunk it changes is marked for saving once.
+     *
+     * @param world The world to modify
+     * @param batch The placements, already grouped by chunk
+     * @return The queued job
+     */
+    public EditJob submitBatch(World world, BlockBatch batch) {
+        return submit(new EditJob(world, batch.chunkKeys(), 0, ChunkSections.SECTION_COUNT - 1,
+                batch::applySection));
+    }
+
+    /**
+     * Queues the restore of a saved region.
+     *
+     * The snapshot is applied chunk by chunk, one section per unit of work,
+     * and each chunk it changes is marked for saving once; sections that
+     * already match the snapshot are not written.
+     *
+     * @param world The world to modify
+     * @param snapshot The region to restore, at the position it was saved from
+     * @return The queued job
+     */
+    public EditJob submitRestore(World world, RegionSnapshot snapshot) {
+        return submit(new EditJob(world, snapshot.chunkKeys(), 0, ChunkSections.SECTION_COUNT - 1,
+                snapshot::applySection));
+    }
+
+    /**
+     * Applies queued edits until the time budget for this call is used up.
+     *
+     * Call it regularly, e.g. once per tick, and never from two threads at once.
+     */
+    public void tick() {
+        long deadline = System.nanoTime() + budgetNanos;
+
+        EditJob job;
+        while ((job = jobs.peek()) != null) {
+            try {
+                if (job.step()) {
+                    jobs.poll();
+                }
+            } catch (RuntimeException e) {
+                // Don't let one broken job block the queue
+                jobs.poll();
+                job.fail(e);
+            }
+
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Changes how long each call to tick() may spend applying edits.
+     *
+     * @param budgetNanos Time per call, in nanoseconds
+     */
+    public void setBudgetNanos(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * @return The number of jobs that haven't finished yet
+     */
+    public int getPendingJobs() {
+        return jobs.size();
+    }
+
+    /**
+     * Stops accepting jobs and fails every job that hasn't finished with a
+     * CancellationException, e.g. when the plugin is disabled. Call it once
+     * tick() has stopped running; edits already applied are kept and marked
+     * for saving, including those of a job cut off partway through a chunk.
+     */
+    public void close() {
+        closed = true;
+        EditJob job;
+        while ((job = jobs.poll()) != null) {
+            job.fail(new CancellationException("Edit scheduler closed"));
+        }
+    }
+
+    private EditJob submit(EditJob job) {
+        jobs.add(job);
+        // A job queued while close() was draining would otherwise never complete
+        if (closed && jobs.remove(job)) {
+            job.fail(new CancellationException("Edit scheduler closed"));
+        }
+        return job;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.world;
+
+/**
+ * Outcome of a bulk fill operation.
+ *
+ * @param blocksChanged The number of blocks changed
+ * @param bulkSections The number of whole 16x16x16 sections written in one go
+ *                     instead of block by block
+ * @param modifiedSections Bit n set for each section n (block Y >> 4) that was changed
+ */
+public record FillResult(int blocksChanged, int bulkSections, int modifiedSections) {
+
+    /** A result for an operation that changed nothing. */
+    static final FillResult UNCHANGED = new FillResult(0, 0, 0);
+}
@@ -0,0 +1,242 @@
+package com.example.world;
+
+import com.hypixel.hytale.world.block.BlockAccessor;
+import com.hypixel.hytale.world.block.BlockType;
+import com.hypixel.hytale.world.chunk.WorldChunk;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-chunk cache of the highest non-air block in each column.
+ *
+ * Each cached chunk holds a 16x16 heightmap stored as a short array.
+ * Columns are scanned lazily the first time they are queried and kept up
+ * to date as ChunkModifier and SetBlockCommand write blocks, so repeated
+ * surface lookups (spawning, teleporting) are O(1).
+ *
+ * The cache holds at most a fixed number of chunks and evicts the least
+ * recently used one when full, so memory stays flat no matter how many
+ * chunks are loaded. It only references chunks weakly, so it never keeps
+ * an unloaded chunk in memory; a chunk that is loaded again starts with a
+ * fresh heightmap. Edits made outside this mod aren't seen by the
+ * cache; call {@link #invalidate(WorldChunk)} after them.
+ *
+ * A column is scanned and stored while holding the chunk's
+ * {@link ChunkLocks} lock, which this mod's writers hold while they write
+ * and update the cache, so a scan never stores a height from before a
+ * concurrent write.
+ *
+ * See: https://hytale-docs.dev/classes/com.hypixel.hytale.world.chunk.WorldChunk.html
+ */
+public class HeightmapCache {
+
+    /** Default number of chunks kept in the shared cache (512 bytes of heightmap each, about 2 MB in all). */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /** Marks a column that has not been scanned yet. */
+    private static final short UNKNOWN = Short.MIN_VALUE;
+
+    private static final HeightmapCache SHARED = new HeightmapCache(DEFAULT_CAPACITY);
+
+    private final ChunkLruMap<short[]> heightmaps;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    /**
+     * Creates a cache holding at most the given number of chunks.
+     *
+     * @param capacity The maximum number of cached chunks
+     */
+    public HeightmapCache(int capacity) {
+        this.heightmaps = new ChunkLruMap<>(capacity);
+    }
+
+    /**
+     * Gets the cache shared by ChunkModifier and SetBlockCommand.
+     *
+     * @return The shared cache
+     */
+    public static HeightmapCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the highest non-air block at the given X, Z coordinates.
+     *
+     * @param chunk The chunk to search
+     * @param x X coordinate (world coords)
+     * @param z Z coordinate (world coords)
+     * @return The Y coordinate of the highest non-air block, or -1 if none found
+     */
+    public int getHighestBlockAt(WorldChunk chunk, int x, int z) {
+        short[] heightmap = heightmapFor(chunk);
+        int column = columnIndex(x, z);
+
+        short height = heightmap[column];
+        if (height != UNKNOWN) {
+            hits.increment();
+            return height;
+        }
+
+        synchronized (ChunkLocks.of(chunk)) {
+            // A writer may have updated the column while we waited
+            height = heightmap[column];
+            if (height != UNKNOWN) {
+                hits.increment();
+                return height;
+            }
+            misses.increment();
+            height = (short) scanColumn(chunk.getBlockAccessor(), x, ChunkSections.MAX_Y, z);
+            heightmap[column] = height;
+            return height;
+        }
+    }
+
+    /**
+     * Updates the cache after a single block was written.
+     *
+     * @param chunk The chunk that was modified
+     * @param x X coordinate (world coords)
+     * @param y Y coordinate
+     * @param z Z coordinate (world coords)
+     * @param blockType The block type that was written
+     */
+    public void onBlockSet(WorldChunk chunk, int x, int y, int z, BlockType blockType) {
+        onBoxWritten(chunk, x, y, z, x, y, z, blockType);
+    }
+
+    /**
+     * Updates the cache after every block in a box was written with one type.
+     *
+     * Placing a solid block raises a column's height directly. Placing air
+     * at or below the cached height leaves the column to be rescanned on
+     * its next query. Columns outside the chunk are ignored.
+     *
+     * @param chunk The chunk that was modified
+     * @param minX Minimum X coordinate (world coords)
+     * @param minY Minimum Y coordinate
+     * @param minZ Minimum Z coordinate (world coords)
+     * @param maxX Maximum X coordinate (world coords)
+     * @param maxY Maximum Y coordinate
+     * @param maxZ Maximum Z coordinate (world coords)
+     * @param blockType The block type that was written
+     */
+    public void onBoxWritten(WorldChunk chunk, int minX, int minY, int minZ,
+                             int maxX, int maxY, int maxZ, BlockType blockType) {
+        short[] heightmap = cachedHeightmap(chunk);
+        if (heightmap == null) {
+            return;  // Not cached - it will be scanned fresh on first query
+        }
+
+        // Only columns inside this chunk
+        int baseX = chunk.getChunkX() << 4;
+        int baseZ = chunk.getChunkZ() << 4;
+        int fromX = Math.max(minX, baseX);
+        int toX = Math.min(maxX, baseX + 15);
+        int fromZ = Math.max(minZ, baseZ);
+        int toZ = Math.min(maxZ, baseZ + 15);
+
+        for (int z = fromZ; z <= toZ; z++) {
+            for (int x = fromX; x <= toX; x++) {
+                int column = columnIndex(x, z);
+                short height = heightmap[column];
+                if (height == UNKNOWN) {
+                    continue;
+                }
+
+                if (blockType != BlockType.AIR) {
+                    if (maxY > height) {
+                        heightmap[column] = (short) maxY;
+                    }
+                } else if (height >= minY && height <= maxY) {
+                    // The top block was removed - rescan lazily
+                    heightmap[column] = UNKNOWN;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the cached heightmap for a chunk.
+     *
+     * Call this after blocks were changed by something other than this mod.
+     *
+     * @param chunk The chunk to forget
+     */
+    public void invalidate(WorldChunk chunk) {
+        synchronized (heightmaps) {
+            heightmaps.remove(chunk);
+        }
+    }
+
+    /**
+     * Drops all cached heightmaps.
+     */
+    public void clear() {
+        synchronized (heightmaps) {
+            heightmaps.clear();
+        }
+    }
+
+    /** @return The number of queries answered from the cache */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** @return The number of queries that had to scan their column */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** @return The number of heightmaps created, including after eviction or invalidation */
+    public long getRebuilds() {
+        return rebuilds.sum();
+    }
+
+    /** @return The number of chunks currently cached */
+    public int size() {
+        synchronized (heightmaps) {
+            return heightmaps.size();
+        }
+    }
+
+    /**
+     * Scans a column downward for the first non-air block.
+     *
+     * @return The Y coordinate of the highest non-air block at or below fromY, or -1 if none found
+     */
+    static int scanColumn(BlockAccessor accessor, int x, int fromY, int z) {
+        for (int y = fromY; y >= 0; y--) {
+            if (accessor.getBlock(x, y, z) != BlockType.AIR) {
+                return y;
+            }
+        }
+        return -1;
+    }
+
+    private short[] heightmapFor(WorldChunk chunk) {
+        synchronized (heightmaps) {
+            short[] heightmap = heightmaps.get(chunk);
+            if (heightmap == null) {
+                heightmap = new short[ChunkSections.SECTION_SIZE * ChunkSections.SECTION_SIZE];
+                Arrays.fill(heightmap, UNKNOWN);
+                heightmaps.put(chunk, heightmap);
+                rebuilds.increment();
+            }
+            return heightmap;
+        }
+    }
+
+    private short[] cachedHeightmap(WorldChunk chunk) {
+        synchronized (heightmaps) {
+            // get() also marks the chunk as recently used
+            return heightmaps.get(chunk);
+        }
+    }
+
+    private static int columnIndex(int x, int z) {
+        return ((z & 15) << 4) | (x & 15);
+    }
+}
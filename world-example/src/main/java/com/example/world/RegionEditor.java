@@ -0,0 +1,289 @@
+package com.example.world;
+
+import com.hypixel.hytale.world.World;
+import com.hypixel.hytale.world.block.BlockType;
+import com.hypixel.hytale.world.chunk.WorldChunk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Region-level block editing across chunk boundaries.
+ *
+ * ChunkModifier works on a single WorldChunk and trusts the caller to stay
+ * inside it. RegionEditor takes world coordinates instead, splits the box
+ * into chunk-aligned sub-boxes and edits each chunk as its own task on a
+ * fork-join pool, so large edits scale with the number of cores.
+ *
+ * Each chunk is edited while holding its {@link ChunkLocks} lock, so it
+ * doesn't interleave with queued edits or /setblock on the same chunk.
+ *
+ * Blocks that already have the target type are not written. Every changed
+ * chunk is marked for saving exactly once, after all of its blocks have
+ * been written, and its modified sections are recorded in
+ * {@link DirtySections}. Chunks that aren't loaded are skipped and
+ * reported in the result.
+ *
+ * Usage:
+ * <pre>
+ * RegionEditor editor = new RegionEditor(4);
+ * RegionResult result = editor.fill(world, 0, 0, 0, 511, 255, 511, BlockType.AIR);
+ * editor.close();
+ * </pre>
+ *
+ * See: https://hytale-docs.dev/classes/com.hypixel.hytale.world.World.html
+ */
+public class RegionEditor implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates an editor with one worker per available processor.
+     */
+    public RegionEditor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an editor with a fixed number of workers.
+     *
+     * @param parallelism The number of chunks edited at the same time
+     */
+    public RegionEditor(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Fills a box with a specific block type.
+     *
+     * @param world The world to modify
+     * @param x1 First corner X coordinate (world coords)
+     * @param y1 First corner Y coordinate
+     * @param z1 First corner Z coordinate (world coords)
+     * @param x2 Second corner X coordinate (world coords)
+     * @param y2 Second corner Y coordinate
+     * @param z2 Second corner Z coordinate (world coords)
+     * @param blockType The block type to fill with
+     * @return Totals across all chunks in the region
+     */
+    public RegionResult fill(World world, int x1, int y1, int z1,
+                             int x2, int y2, int z2, BlockType blockType) {
+        return fill(world, x1, y1, z1, x2, y2, z2, blockType, null);
+    }
+
+    /**
+     * Fills a box and records the previous blocks so the fill can be undone.
+     *
+     * @param world The world to modify
+     * @param x1 First corner X coordinate (world coords)
+     * @param y1 First corner Y coordinate
+     * @param z1 First corner Z coordinate (world coords)
+     * @param x2 Second corner X coordinate (world coords)
+     * @param y2 Second corner Y coordinate
+     * @param z2 Second corner Z coordinate (world coords)
+     * @param blockType The block type to fill with
+     * @param journal The journal for this world to record the operation in, or null to skip recording
+     * @return Totals across all chunks in the region
+     */
+    public RegionResult fill(World world, int x1, int y1, int z1,
+                             int x2, int y2, int z2, BlockType blockType, ChangeJournal journal) {
+        return edit(world, x1, y1, z1, x2, y2, z2, journal,
+                (chunk, minX, minY, minZ, maxX, maxY, maxZ, fromX, toX, fromZ, toZ) ->
+                        ChunkModifier.fillBox(chunk, fromX, minY, fromZ, toX, maxY, toZ, blockType));
+    }
+
+    /**
+     * Creates a hollow box outline with a specific block type.
+     *
+     * @param world The world to modify
+     * @param x1 First corner X coordinate (world coords)
+     * @param y1 First corner Y coordinate
+     * @param z1 First corner Z coordinate (world coords)
+     * @param x2 Second corner X coordinate (world coords)
+     * @param y2 Second corner Y coordinate
+     * @param z2 Second corner Z coordinate (world coords)
+     * @param blockType The block type for the outline
+     * @return Totals across all chunks in the region
+     */
+    public RegionResult createHollowCube(World world, int x1, int y1, int z1,
+                                         int x2, int y2, int z2, BlockType blockType) {
+        return createHollowCube(world, x1, y1, z1, x2, y2, z2, blockType, null);
+    }
+
+    /**
+     * Creates a hollow box outline and records the previous blocks so it can be undone.
+     *
+     * @param world The world to modify
+     * @param x1 First corner X coordinate (world coords)
+     * @param y1 First corner Y coordinate
+     * @param z1 First corner Z coordinate (world coords)
+     * @param x2 Second corner X coordinate (world coords)
+     * @param y2 Second corner Y coordinate
+     * @param z2 Second corner Z coordinate (world coords)
+     * @param blockType The block type for the outline
+     * @param journal The journal for this world to record the operation in, or null to skip recording
+     * @return Totals across all chunks in the region
+     */
+    public RegionResult createHollowCube(World world, int x1, int y1, int z1,
+                                         int x2, int y2, int z2, BlockType blockType,
+                                         ChangeJournal journal) {
+        return edit(world, x1, y1, z1, x2, y2, z2, journal,
+                (chunk, minX, minY, minZ, maxX, maxY, maxZ, fromX, toX, fromZ, toZ) ->
+                        ChunkModifier.outlineBox(chunk, minX, minY, minZ, maxX, maxY, maxZ,
+                                fromX, toX, fromZ, toZ, blockType));
+    }
+
+    /**
+     * Restores a saved region, writing each saved chunk as its own task.
+     *
+     * Chunks that weren't saved in the snapshot, or aren't loaded now, are
+     * left as they are; the latter are reported as skipped.
+     *
+     * @param world The world to modify
+     * @param snapshot The region to restore, at the position it was saved from
+     * @return Totals across all restored chunks
+     */
+    public RegionResult restore(World world, RegionSnapshot snapshot) {
+        ChunkHandleCache chunks = ChunkHandleCache.of(world);
+        List<Callable<FillResult>> tasks = new ArrayList<>();
+        for (long key : snapshot.chunkKeys()) {
+            tasks.add(() -> {
+                WorldChunk chunk = chunks.getCurrentChunk((int) (key >> 32), (int) key);
+                if (chunk == null) {
+                    return null;  // Not loaded
+                }
+                FillResult result;
+                synchronized (ChunkLocks.of(chunk)) {
+                    result = snapshot.applyChunk(chunk);
+                }
+                ChunkModifier.markModified(chunk, result.modifiedSections());
+                return result;
+            });
+        }
+        return sum(tasks);
+    }
+
+    /**
+     * Shuts down the worker pool. Edits already running are allowed to finish.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Splits a box into per-chunk tasks, runs them on the pool and sums the results.
+     */
+    private RegionResult edit(World world, int x1, int y1, int z1,
+                              int x2, int y2, int z2, ChangeJournal journal, ChunkEdit edit) {
+        int minX = Math.min(x1, x2);
+        int maxX = Math.max(x1, x2);
+        int minY = Math.max(0, Math.min(y1, y2));
+        int maxY = Math.min(ChunkSections.MAX_Y, Math.max(y1, y2));
+        int minZ = Math.min(z1, z2);
+        int maxZ = Math.max(z1, z2);
+
+        if (minY > maxY) {
+            return new RegionResult(0, 0, 0, 0, 0);  // Entirely outside the world height
+        }
+        if (journal != null && journal.getWorld() != world) {
+            throw new IllegalArgumentException("Journal belongs to a different world");
+        }
+
+        // One task per chunk column the box overlaps
+        ChunkHandleCache chunks = ChunkHandleCache.of(world);
+        List<Callable<FillResult>> tasks = new ArrayList<>();
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                // Clip the box to this chunk's 16x16 footprint
+                int fromX = Math.max(minX, chunkX << 4);
+                int toX = Math.min(maxX, (chunkX << 4) + 15);
+                int fromZ = Math.max(minZ, chunkZ << 4);
+                int toZ = Math.min(maxZ, (chunkZ << 4) + 15);
+                int cx = chunkX;
+                int cz = chunkZ;
+
+                tasks.add(() -> {
+                    WorldChunk chunk = chunks.getCurrentChunk(cx, cz);
+                    if (chunk == null) {
+                        return null;  // Not loaded
+                    }
+                    FillResult result;
+                    synchronized (ChunkLocks.of(chunk)) {
+                        if (journal != null) {
+                            journal.record(chunk, fromX, minY, fromZ, toX, maxY, toZ);
+                        }
+                        result = edit.apply(chunk, minX, minY, minZ, maxX, maxY, maxZ,
+                                fromX, toX, fromZ, toZ);
+                    }
+                    ChunkModifier.markModified(chunk, result.modifiedSections());
+                    return result;
+                });
+            }
+        }
+
+        RegionResult result = sum(tasks);
+
+        if (journal != null) {
+            // The whole region is undone as one operation
+            journal.commit();
+        }
+
+        return result;
+    }
+
+    /**
+     * Runs per-chunk tasks on the pool and sums their results; a null result is a skipped chunk.
+     */
+    private RegionResult sum(List<Callable<FillResult>> tasks) {
+        long blocksChanged = 0;
+        int bulkSections = 0;
+        int sectionsModified = 0;
+        int chunksModified = 0;
+        int chunksSkipped = 0;
+
+        for (Future<FillResult> future : pool.invokeAll(tasks)) {
+            FillResult result = join(future);
+            if (result == null) {
+                chunksSkipped++;
+            } else if (result.modifiedSections() != 0) {
+                blocksChanged += result.blocksChanged();
+                bulkSections += result.bulkSections();
+                sectionsModified += Integer.bitCount(result.modifiedSections());
+                chunksModified++;
+            }
+        }
+
+        return new RegionResult(blocksChanged, bulkSections, sectionsModified, chunksModified, chunksSkipped);
+    }
+
+    private static FillResult join(Future<FillResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while editing region", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Region edit failed", e.getCause());
+        }
+    }
+
+    /**
+     * One chunk's share of a region edit.
+     *
+     * Receives the whole region (min/max) and the columns of it that fall
+     * inside this chunk (from/to).
+     */
+    @FunctionalInterface
+    private interface ChunkEdit {
+        FillResult apply(WorldChunk chunk, int minX, int minY, int minZ, int maxX, int maxY, int maxZ,
+                         int fromX, int toX, int fromZ, int toZ);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.world;
+
+/**
+ * Outcome of a region-level edit spanning one or more chunks.
+ *
+ * @param blocksChanged The number of blocks changed across all chunks
+ * @param bulkSections The number of whole sections written in one go
+ * @param sectionsModified The number of chunk sections changed; each is recorded in {@link DirtySections}
+ * @param chunksModified The number of chunks changed (each marked for saving once)
+ * @param chunksSkipped The number of chunks in the region that were not loaded
+ */
+public record RegionResult(long blocksChanged, int bulkSections, int sectionsModified,
+                           int chunksModified, int chunksSkipped) {
+}
@@ -0,0 +1,542 @@
+package com.example.world;
+
+import com.hypixel.hytale.world.World;
+import com.hypixel.hytale.world.block.BlockAccessor;
+import com.hypixel.hytale.world.block.BlockType;
+import com.hypixel.hytale.world.chunk.WorldChunk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A saved copy of a rectangle of chunks, for resetting arenas and similar
+ * areas to a known state.
+ *
+ * {@link #write} streams the region to a file one section at a time, and
+ * {@link #open} maps a file back into memory. Applying a snapshot decodes
+ * each section straight from the mapped file into a reused scratch array
+ * and writes it with the accessor's whole-section bulk path, so restoring
+ * millions of blocks keeps only the snapshot's index on the heap.
+ * Sections that already match the snapshot are compared and skipped, so
+ * resetting a mostly intact arena only rewrites what was changed.
+ *
+ * File layout (big-endian):
+ * <pre>
+ * int    magic "RGNS", short version
+ * short  block type count, then per type: short length, UTF-8 name
+ * int    minChunkX, minChunkZ, chunks along X, chunks along Z
+ * int[]  section offsets, 16 per chunk, chunks X-major (0 = chunk not saved)
+ * per section:
+ *   short    palette size, short[] palette (indexes into the type table)
+ *   long[]   block palette indexes, packed 64 / bits to a long, in (y, z, x)
+ *            order; omitted when the palette has one entry
+ * </pre>
+ * Block types are stored by name, so files stay readable if types are
+ * added or reordered. Chunks that weren't loaded when the snapshot was
+ * written are left untouched when it is applied.
+ *
+ * An opened snapshot is immutable and can be applied from several threads.
+ *
+ * Usage:
+ * <pre>
+ * RegionSnapshot.write(world, -4, -4, 3, 3, Path.of("arena.rgn"));
+ * // Later
+ * RegionSnapshot arena = RegionSnapshot.open(Path.of("arena.rgn"));
+ * regionEditor.restore(world, arena);
+ * </pre>
+ */
+public final class RegionSnapshot {
+
+    /** Most chunks one snapshot may hold; keeps the file within one mapping. */
+    public static final int MAX_CHUNKS = 1 << 15;
+
+    private static final int MAGIC = 0x52474E53;
+    private static final short VERSION = 1;
+
+    private static final int SECTIONS = ChunkSections.SECTION_COUNT;
+    private static final int BLOCKS = ChunkSections.BLOCKS_PER_SECTION;
+
+    /** Largest possible encoded section: a full palette plus one long per block. */
+    private static final int MAX_SECTION_BYTES = 2 + 2 * BLOCKS + 8 * BLOCKS;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final ByteBuffer data;
+    private final BlockType[] types;
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final int chunksAlongX;
+    private final int chunksAlongZ;
+    private final int indexStart;
+    private final long[] chunkKeys;
+
+    private RegionSnapshot(ByteBuffer data, BlockType[] types, int minChunkX, int minChunkZ,
+                           int chunksAlongX, int chunksAlongZ, int indexStart, long[] chunkKeys) {
+        this.data = data;
+        this.types = types;
+        this.minChunkX = minChunkX;
+        this.minChunkZ = minChunkZ;
+        this.chunksAlongX = chunksAlongX;
+        this.chunksAlongZ = chunksAlongZ;
+        this.indexStart = indexStart;
+        this.chunkKeys = chunkKeys;
+    }
+
+    /**
+     * Saves a rectangle of chunks to a file, replacing it if it exists.
+     *
+     * Reads the chunks while it runs, so call it from the game thread or
+     * while nothing else edits the region.
+     *
+     * @param world The world to read
+     * @param chunkX1 First corner chunk X coordinate
+     * @param chunkZ1 First corner chunk Z coordinate
+     * @param chunkX2 Second corner chunk X coordinate
+     * @param chunkZ2 Second corner chunk Z coordinate
+     * @param file The file to write
+     * @return The number of chunks saved; chunks that aren't loaded are left out
+     * @throws IOException If the file can't be written
+     * @throws IllegalArgumentException If the region has more than {@link #MAX_CHUNKS} chunks
+     */
+    public static int write(World world, int chunkX1, int chunkZ1, int chunkX2, int chunkZ2,
+                            Path file) throws IOException {
+        int minChunkX = Math.min(chunkX1, chunkX2);
+        int minChunkZ = Math.min(chunkZ1, chunkZ2);
+        long alongX = (long) Math.max(chunkX1, chunkX2) - minChunkX + 1;
+        long alongZ = (long) Math.max(chunkZ1, chunkZ2) - minChunkZ + 1;
+        if (alongX * alongZ > MAX_CHUNKS) {
+            throw new IllegalArgumentException("Region has " + alongX * alongZ
+                    + " chunks, more than " + MAX_CHUNKS);
+        }
+        int chunksAlongX = (int) alongX;
+        int chunksAlongZ = (int) alongZ;
+        int chunkCount = chunksAlongX * chunksAlongZ;
+
+        BlockType[] types = BlockType.values();
+        ByteBuffer header = encodeHeader(types, minChunkX, minChunkZ, chunksAlongX, chunksAlongZ);
+        int[] offsets = new int[chunkCount * SECTIONS];
+        long dataStart = header.remaining() + (long) offsets.length * Integer.BYTES;
+
+        ChunkHandleCache chunks = ChunkHandleCache.of(world);
+        Scratch scratch = SCRATCH.get();
+        ByteBuffer out = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+        int chunksWritten = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            // Sections are streamed after the header and index, which are written last
+            channel.position(dataStart);
+            long position = dataStart;
+
+            for (int chunkIndex = 0; chunkIndex < chunkCount; chunkIndex++) {
+                int chunkX = minChunkX + chunkIndex / chunksAlongZ;
+                int chunkZ = minChunkZ + chunkIndex % chunksAlongZ;
+                // Straight from the world, so a cached handle to an unloaded chunk isn't saved
+                WorldChunk chunk = chunks.getCurrentChunk(chunkX, chunkZ);
+                if (chunk == null) {
+                    continue;  // Not loaded - leave its offsets at 0
+                }
+
+                BlockAccessor accessor = chunk.getBlockAccessor();
+                for (int sectionY = 0; sectionY < SECTIONS; sectionY++) {
+                    if (out.remaining() < MAX_SECTION_BYTES) {
+                        drain(channel, out);
+                    }
+                    if (position > Integer.MAX_VALUE) {
+                        throw new IOException("Region snapshot is larger than 2 GB");
+                    }
+                    offsets[chunkIndex * SECTIONS + sectionY] = (int) position;
+
+                    ChunkSections.readSection(accessor, chunkX << 4, sectionY, chunkZ << 4, scratch.blocks);
+                    int start = out.position();
+                    encodeSection(scratch, out);
+                    position += out.position() - start;
+                }
+                chunksWritten++;
+            }
+            drain(channel, out);
+
+            ByteBuffer index = ByteBuffer.allocate(header.remaining() + offsets.length * Integer.BYTES);
+            index.put(header);
+            index.asIntBuffer().put(offsets);
+            index.clear();
+            while (index.hasRemaining()) {
+                channel.write(index, index.position());
+            }
+        }
+        return chunksWritten;
+    }
+
+    /**
+     * Maps a snapshot file into memory.
+     *
+     * The mapping stays valid after the file is closed and is released
+     * once the snapshot is no longer referenced.
+     *
+     * @param file The file written by {@link #write}
+     * @return The snapshot
+     * @throws IOException If the file can't be read or is not a valid snapshot
+     */
+    public static RegionSnapshot open(Path file) throws IOException {
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Region snapshot is larger than 2 GB: " + file);
+            }
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            if (data.getInt() != MAGIC) {
+                throw new IOException("Not a region snapshot: " + file);
+            }
+            short version = data.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported region snapshot version " + version + ": " + file);
+            }
+
+            // Match the file's type names to this server's block types
+            BlockType[] types = new BlockType[data.getShort() & 0xFFFF];
+            for (int i = 0; i < types.length; i++) {
+                byte[] name = new byte[data.getShort() & 0xFFFF];
+                data.get(name);
+                String typeName = new String(name, StandardCharsets.UTF_8);
+                try {
+                    types[i] = BlockType.valueOf(typeName);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Unknown block type " + typeName + " in " + file);
+                }
+            }
+
+            int minChunkX = data.getInt();
+            int minChunkZ = data.getInt();
+            int chunksAlongX = data.getInt();
+            int chunksAlongZ = data.getInt();
+            if (chunksAlongX <= 0 || chunksAlongZ <= 0 || (long) chunksAlongX * chunksAlongZ > MAX_CHUNKS) {
+                throw new IOException("Corrupt region snapshot header: " + file);
+            }
+            int indexStart = data.position();
+            int chunkCount = chunksAlongX * chunksAlongZ;
+            long dataStart = indexStart + (long) chunkCount * SECTIONS * Integer.BYTES;
+            if (dataStart > data.limit()) {
+                throw new IOException("Truncated region snapshot: " + file);
+            }
+
+            // Saved chunks, in the order they are applied
+            long[] chunkKeys = new long[chunkCount];
+            int saved = 0;
+            for (int chunkIndex = 0; chunkIndex < chunkCount; chunkIndex++) {
+                int chunkStart = indexStart + chunkIndex * SECTIONS * Integer.BYTES;
+                if (data.getInt(chunkStart) == 0) {
+                    continue;
+                }
+                for (int sectionY = 0; sectionY < SECTIONS; sectionY++) {
+                    int offset = data.getInt(chunkStart + sectionY * Integer.BYTES);
+                    if (offset < dataStart || !isValidSection(data, offset, types.length)) {
+                        throw new IOException("Corrupt region snapshot section " + sectionY + " of chunk "
+                                + (minChunkX + chunkIndex / chunksAlongZ) + ", "
+                                + (minChunkZ + chunkIndex % chunksAlongZ) + ": " + file);
+                    }
+                }
+                chunkKeys[saved++] = ChunkHandleCache.chunkKey(minChunkX + chunkIndex / chunksAlongZ,
+                        minChunkZ + chunkIndex % chunksAlongZ);
+            }
+
+            return new RegionSnapshot(data, types, minChunkX, minChunkZ, chunksAlongX, chunksAlongZ,
+                    indexStart, Arrays.copyOf(chunkKeys, saved));
+        } catch (RuntimeException e) {
+            // Buffer underflows and the like from a damaged file
+            throw new IOException("Corrupt region snapshot: " + file, e);
+        }
+    }
+
+    /**
+     * @return Chunk X coordinate of the region's first corner
+     */
+    public int getMinChunkX() {
+        return minChunkX;
+    }
+
+    /**
+     * @return Chunk Z coordinate of the region's first corner
+     */
+    public int getMinChunkZ() {
+        return minChunkZ;
+    }
+
+    /**
+     * @return Chunk X coordinate of the region's second corner
+     */
+    public int getMaxChunkX() {
+        return minChunkX + chunksAlongX - 1;
+    }
+
+    /**
+     * @return Chunk Z coordinate of the region's second corner
+     */
+    public int getMaxChunkZ() {
+        return minChunkZ + chunksAlongZ - 1;
+    }
+
+    /**
+     * @return Number of chunks saved in the snapshot
+     */
+    public int getChunkCount() {
+        return chunkKeys.length;
+    }
+
+    /**
+     * @return The saved chunks, as keys from {@link ChunkHandleCache#chunkKey}, in the order they are applied
+     */
+    long[] chunkKeys() {
+        return chunkKeys;
+    }
+
+    /**
+     * Restores one section of a chunk from the snapshot, without marking
+     * the chunk for saving. A section that already matches the snapshot is
+     * not written. Used as an {@link EditJob.SectionEdit}.
+     *
+     * @return The number of blocks changed
+     */
+    FillResult applySection(WorldChunk chunk, int sectionY) {
+        int chunkX = chunk.getChunkX();
+        int chunkZ = chunk.getChunkZ();
+        int offset = sectionOffset(chunkX, chunkZ, sectionY);
+        if (offset == 0) {
+            return FillResult.UNCHANGED;
+        }
+
+        BlockAccessor accessor = chunk.getBlockAccessor();
+        int baseX = chunkX << 4;
+        int baseY = sectionY << 4;
+        int baseZ = chunkZ << 4;
+        int paletteSize = data.getShort(offset) & 0xFFFF;
+
+        if (paletteSize == 1) {
+            // One block type: no block data in the file, and the caches can be updated in place
+            BlockType type = types[data.getShort(offset + 2) & 0xFFFF];
+            int changed = ChunkSections.fillSection(accessor, baseX, sectionY, baseZ, type);
+            if (changed == 0) {
+                return FillResult.UNCHANGED;
+            }
+            ChunkModifier.blocksWritten(chunk, baseX, baseY, baseZ, baseX + 15, baseY + 15, baseZ + 15, type);
+            return new FillResult(changed, bulkSections(accessor), 1 << sectionY);
+        }
+
+        Scratch scratch = SCRATCH.get();
+        BlockType[] palette = scratch.palette;
+        for (int i = 0; i < paletteSize; i++) {
+            palette[i] = types[data.getShort(offset + 2 + 2 * i) & 0xFFFF];
+        }
+
+        // Unpack straight from the mapped file
+        int bits = bitsFor(paletteSize);
+        int perLong = 64 / bits;
+        long mask = (1L << bits) - 1;
+        BlockType[] blocks = scratch.blocks;
+        int wordAt = offset + 2 + 2 * paletteSize;
+        for (int i = 0; i < BLOCKS; wordAt += Long.BYTES) {
+            long word = data.getLong(wordAt);
+            for (int j = 0; j < perLong && i < BLOCKS; j++, i++) {
+                blocks[i] = palette[(int) (word & mask)];
+                word >>>= bits;
+            }
+        }
+
+        // Arena resets mostly find sections as they were saved, so compare before writing
+        BlockType[] current = scratch.current;
+        ChunkSections.readSection(accessor, baseX, sectionY, baseZ, current);
+        int changed = 0;
+        for (int i = 0; i < BLOCKS; i++) {
+            if (current[i] != blocks[i]) {
+                changed++;
+            }
+        }
+        if (changed == 0) {
+            return FillResult.UNCHANGED;
+        }
+
+        ChunkSections.writeSection(accessor, baseX, sectionY, baseZ, blocks, current);
+        ChunkModifier.sectionRewritten(chunk, sectionY);
+        return new FillResult(changed, bulkSections(accessor), 1 << sectionY);
+    }
+
+    /**
+     * Restores every section of a chunk, without marking it for saving.
+     *
+     * @return The number of blocks changed, or null if the chunk isn't in the snapshot
+     */
+    FillResult applyChunk(WorldChunk chunk) {
+        if (sectionOffset(chunk.getChunkX(), chunk.getChunkZ(), 0) == 0) {
+            return null;
+        }
+        int blocksChanged = 0;
+        int bulkSections = 0;
+        int modifiedSections = 0;
+        for (int sectionY = 0; sectionY < SECTIONS; sectionY++) {
+            FillResult result = applySection(chunk, sectionY);
+            blocksChanged += result.blocksChanged();
+            bulkSections += result.bulkSections();
+            modifiedSections |= result.modifiedSections();
+        }
+        return new FillResult(blocksChanged, bulkSections, modifiedSections);
+    }
+
+    /** 1 if a section write went through the accessor's bulk path, 0 if it fell back to per-block writes. */
+    private static int bulkSections(BlockAccessor accessor) {
+        return accessor instanceof SectionedBlockAccessor ? 1 : 0;
+    }
+
+    /** File offset of a section, or 0 if the chunk is outside the region or wasn't saved. */
+    private int sectionOffset(int chunkX, int chunkZ, int sectionY) {
+        int dx = chunkX - minChunkX;
+        int dz = chunkZ - minChunkZ;
+        if (dx < 0 || dx >= chunksAlongX || dz < 0 || dz >= chunksAlongZ) {
+            return 0;
+        }
+        int chunkIndex = dx * chunksAlongZ + dz;
+        return data.getInt(indexStart + (chunkIndex * SECTIONS + sectionY) * Integer.BYTES);
+    }
+
+    /**
+     * Checks a section's palette, length and block indexes, so applying it can't read past
+     * the file, the type table or the palette.
+     */
+    private static boolean isValidSection(ByteBuffer data, int offset, int typeCount) {
+        if (offset > data.limit() - 2) {
+            return false;
+        }
+        int paletteSize = data.getShort(offset) & 0xFFFF;
+        if (paletteSize == 0 || paletteSize > BLOCKS) {
+            return false;
+        }
+        long length = 2 + 2L * paletteSize;
+        if (paletteSize > 1) {
+            int perLong = 64 / bitsFor(paletteSize);
+            length += (long) (BLOCKS + perLong - 1) / perLong * Long.BYTES;
+        }
+        if (offset + length > data.limit()) {
+            return false;
+        }
+        for (int i = 0; i < paletteSize; i++) {
+            if ((data.getShort(offset + 2 + 2 * i) & 0xFFFF) >= typeCount) {
+                return false;
+            }
+        }
+
+        // With a power-of-two palette every index fits; otherwise check each block's index
+        if (paletteSize > 1 && Integer.bitCount(paletteSize) != 1) {
+            int bits = bitsFor(paletteSize);
+            int perLong = 64 / bits;
+            long mask = (1L << bits) - 1;
+            int wordAt = offset + 2 + 2 * paletteSize;
+            for (int i = 0; i < BLOCKS; wordAt += Long.BYTES) {
+                long word = data.getLong(wordAt);
+                for (int j = 0; j < perLong && i < BLOCKS; j++, i++) {
+                    if ((word & mask) >= paletteSize) {
+                        return false;
+                    }
+                    word >>>= bits;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static ByteBuffer encodeHeader(BlockType[] types, int minChunkX, int minChunkZ,
+                                           int chunksAlongX, int chunksAlongZ) {
+        byte[][] names = new byte[types.length][];
+        int size = 4 + 2 + 2 + 4 * 4;
+        for (int i = 0; i < types.length; i++) {
+            names[i] = types[i].name().getBytes(StandardCharsets.UTF_8);
+            size += 2 + names[i].length;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(size);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) types.length);
+        for (byte[] name : names) {
+            header.putShort((short) name.length).put(name);
+        }
+        header.putInt(minChunkX).putInt(minChunkZ).putInt(chunksAlongX).putInt(chunksAlongZ);
+        return header.flip();
+    }
+
+    /** Appends scratch.blocks to out as a palette and packed indexes. */
+    private static void encodeSection(Scratch scratch, ByteBuffer out) {
+        BlockType[] blocks = scratch.blocks;
+        int[] paletteIndex = scratch.paletteIndex;
+        int[] palette = scratch.paletteTypes;
+        int paletteSize = 0;
+        for (BlockType block : blocks) {
+            int type = block.ordinal();
+            if (paletteIndex[type] < 0) {
+                paletteIndex[type] = paletteSize;
+                palette[paletteSize++] = type;
+            }
+        }
+
+        out.putShort((short) paletteSize);
+        for (int i = 0; i < paletteSize; i++) {
+            out.putShort((short) palette[i]);
+        }
+
+        if (paletteSize > 1) {
+            int bits = bitsFor(paletteSize);
+            int perLong = 64 / bits;
+            long word = 0;
+            int inWord = 0;
+            for (BlockType block : blocks) {
+                word |= (long) paletteIndex[block.ordinal()] << (inWord * bits);
+                if (++inWord == perLong) {
+                    out.putLong(word);
+                    word = 0;
+                    inWord = 0;
+                }
+            }
+            if (inWord > 0) {
+                out.putLong(word);
+            }
+        }
+
+        // Reset only the entries this section used
+        for (int i = 0; i < paletteSize; i++) {
+            paletteIndex[palette[i]] = -1;
+        }
+    }
+
+    private static int bitsFor(int paletteSize) {
+        return 32 - Integer.numberOfLeadingZeros(paletteSize - 1);
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * Per-thread arrays for encoding and decoding one section.
+     */
+    private static final class Scratch {
+
+        final BlockType[] blocks = new BlockType[BLOCKS];
+        final BlockType[] current = new BlockType[BLOCKS];
+        final BlockType[] palette = new BlockType[BLOCKS];
+        final int[] paletteTypes = new int[BLOCKS];
+        final int[] paletteIndex = new int[BlockType.values().length];
+
+        Scratch() {
+            Arrays.fill(paletteIndex, -1);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.world;
+
+import com.hypixel.hytale.world.Location;
+import com.hypixel.hytale.world.World;
+import com.hypixel.hytale.world.block.BlockAccessor;
+import com.hypixel.hytale.world.block.BlockType;
+import com.hypixel.hytale.world.chunk.WorldChunk;
+
+/**
+ * Index of safe standing positions, used to find somewhere safe to land.
+ *
+ * For each cached chunk, the index keeps a bitmap with one bit per block
+ * position that is set when the position is safe in the sense of
+ * {@link ChunkModifier#isSafeLocation}: solid block below, two air blocks
+ * above. Bitmaps are built one 16x16x16 section at a time on demand and
+ * invalidated per section when ChunkModifier or SetBlockCommand write
+ * blocks, so only the sections around an edit are recomputed.
+ *
+ * Searches go outward from the start column in square rings and stop at
+ * the first ring with a safe position. The heightmap limits each column
+ * to positions at or below its surface, since nothing above it can have
+ * a solid block underneath.
+ *
+ * Like {@link HeightmapCache}, the index is bounded, evicts the least
+ * recently used chunk and never keeps an unloaded chunk in memory, and edits made outside this mod require a call to
+ * {@link #invalidate(WorldChunk)}.
+ */
+public class SafeLocationIndex {
+
+    /** Default number of chunks kept in the shared index (8 KB of bits each). */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /** Lowest and highest Y accepted by ChunkModifier.isSafeLocation. */
+    private static final int MIN_SAFE_Y = 1;
+    private static final int MAX_SAFE_Y = 253;
+
+    private static final int WORDS_PER_SECTION = ChunkSections.BLOCKS_PER_SECTION / 64;
+
+    private static final SafeLocationIndex SHARED = new SafeLocationIndex(DEFAULT_CAPACITY);
+
+    private final ChunkLruMap<ChunkBits> chunks;
+
+    /**
+     * Creates an index holding at most the given number of chunks.
+     *
+     * @param capacity The maximum number of indexed chunks
+     */
+    public SafeLocationIndex(int capacity) {
+        this.chunks = new ChunkLruMap<>(capacity);
+    }
+
+    /**
+     * Gets the index shared by ChunkModifier and SetBlockCommand.
+     *
+     * @return The shared index
+     */
+    public static SafeLocationIndex shared() {
+        return SHARED;
+    }
+
+    /**
+     * Finds the safe position closest to the given block position.
+     *
+     * Columns are searched in square rings of growing distance around
+     * (x, z). Within the first ring that has any safe position, the one
+     * closest in height to y wins. Unloaded chunks are skipped.
+     *
+     * @param world The world to search
+     * @param x Start X coordinate (world coords)
+     * @param y Preferred Y coordinate (player feet position)
+     * @param z Start Z coordinate (world coords)
+     * @param radius Maximum horizontal distance to search, in blocks
+     * @return A location at the center of the safe block, or null if none was found
+     */
+    public Location findNearest(World world, int x, int y, int z, int radius) {
+        WorldChunk chunk = null;
+        int loadedChunkX = Integer.MIN_VALUE;
+        int loadedChunkZ = Integer.MIN_VALUE;
+
+        for (int ring = 0; ring <= radius; ring++) {
+            int bestX = 0;
+            int bestY = -1;
+            int bestZ = 0;
+            int bestDistance = Integer.MAX_VALUE;
+
+            // Walk the ring's perimeter (just the center column for ring 0)
+            int side = ring == 0 ? 1 : ring * 2;
+            for (int edge = 0; edge < (ring == 0 ? 1 : 4); edge++) {
+                for (int step = 0; step < side; step++) {
+                    int columnX;
+                    int columnZ;
+                    switch (edge) {
+                        case 0 -> { columnX = x - ring + step; columnZ = z - ring; }
+                        case 1 -> { columnX = x + ring; columnZ = z - ring + step; }
+                        case 2 -> { columnX = x + ring - step; columnZ = z + ring; }
+                        default -> { columnX = x - ring; columnZ = z + ring - step; }
+                    }
+
+                    // Consecutive columns usually share a chunk
+                    if (loadedChunkX != columnX >> 4 || loadedChunkZ != columnZ >> 4) {
+                        loadedChunkX = columnX >> 4;
+                        loadedChunkZ = columnZ >> 4;
+                        chunk = ChunkHandleCache.of(world).getChunk(loadedChunkX, loadedChunkZ);
+                    }
+                    if (chunk == null) {
+                        continue;  // Not loaded
+                    }
+
+                    int safeY = nearestSafeY(chunk, columnX, y, columnZ);
+                    if (safeY >= 0 && Math.abs(safeY - y) < bestDistance) {
+                        bestX = columnX;
+                        bestY = safeY;
+                        bestZ = columnZ;
+                        bestDistance = Math.abs(safeY - y);
+                    }
+                }
+            }
+
+            if (bestY >= 0) {
+                return new Location(world, bestX + 0.5, bestY, bestZ + 0.5);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks a single position using the index.
+     *
+     * @param chunk The chunk containing the position
+     * @param x X coordinate (world coords)
+     * @param y Y coordinate (player feet position)
+     * @param z Z coordinate (world coords)
+     * @return true if the position is safe
+     */
+    public boolean isSafe(WorldChunk chunk, int x, int y, int z) {
+        if (y < MIN_SAFE_Y || y > MAX_SAFE_Y) {
+            return false;
+        }
+        return isSafe(bitsFor(chunk), chunk, x, y, z);
+    }
+
+    /**
+     * Marks the sections affected by writes between minY and maxY for recomputing.
+     *
+     * A write at Y changes whether Y - 1, Y and Y + 1 are safe, so the
+     * range is widened by one block in each direction.
+     *
+     * @param chunk The chunk that was modified
+     * @param minY Lowest Y written
+     * @param maxY Highest Y written
+     */
+    public void invalidate(WorldChunk chunk, int minY, int maxY) {
+        ChunkBits bits;
+        synchronized (chunks) {
+            bits = chunks.get(chunk);
+        }
+        if (bits == null) {
+            return;  // Not indexed - nothing to invalidate
+        }
+
+        int fromSection = Math.max(0, minY - 1) >> 4;
+        int toSection = Math.min(ChunkSections.MAX_Y, maxY + 1) >> 4;
+        int mask = 0;
+        for (int sectionY = fromSection; sectionY <= toSection; sectionY++) {
+            mask |= 1 << sectionY;
+        }
+
+        synchronized (bits) {
+            bits.validSections &= ~mask;
+        }
+    }
+
+    /**
+     * Drops the whole bitmap for a chunk.
+     *
+     * Call this after blocks were changed by something other than this mod.
+     *
+     * @param chunk The chunk to forget
+     */
+    public void invalidate(WorldChunk chunk) {
+        synchronized (chunks) {
+            chunks.remove(chunk);
+        }
+    }
+
+    /**
+     * Drops all indexed chunks.
+     */
+    public void clear() {
+        synchronized (chunks) {
+            chunks.clear();
+        }
+    }
+
+    /**
+     * Finds the safe Y in a column closest to the preferred Y.
+     *
+     * @return The safe Y coordinate, or -1 if the column has none
+     */
+    private int nearestSafeY(WorldChunk chunk, int x, int y, int z) {
+        // Nothing above the surface block can have solid ground below it
+        int surface = ChunkModifier.getHighestBlockAt(chunk, x, z);
+        int topY = Math.min(MAX_SAFE_Y, surface + 1);
+        if (topY < MIN_SAFE_Y) {
+            return -1;
+        }
+
+        ChunkBits bits = bitsFor(chunk);
+        int startY = Math.max(MIN_SAFE_Y, Math.min(topY, y));
+
+        // Alternate below and above the start until both ends are exhausted
+        for (int offset = 0; startY - offset >= MIN_SAFE_Y || startY + offset <= topY; offset++) {
+            int below = startY - offset;
+            if (below >= MIN_SAFE_Y && isSafe(bits, chunk, x, below, z)) {
+                return below;
+            }
+            int above = startY + offset;
+            if (offset > 0 && above <= topY && isSafe(bits, chunk, x, above, z)) {
+                return above;
+            }
+        }
+
+        return -1;
+    }
+
+    private boolean isSafe(ChunkBits bits, WorldChunk chunk, int x, int y, int z) {
+        int sectionY = y >> 4;
+        synchronized (bits) {
+            if ((bits.validSections & (1 << sectionY)) == 0) {
+                buildSection(bits, chunk, sectionY);
+            }
+            int index = bitIndex(x, y, z);
+            return (bits.words[sectionY * WORDS_PER_SECTION + (index >>> 6)] & (1L << index)) != 0;
+        }
+    }
+
+    /**
+     * Recomputes one section's safe bits from the blocks in and around it.
+     */
+    private static void buildSection(ChunkBits bits, WorldChunk chunk, int sectionY) {
+        BlockAccessor accessor = chunk.getBlockAccessor();
+        int baseX = chunk.getChunkX() << 4;
+        int baseY = sectionY << 4;
+        int baseZ = chunk.getChunkZ() << 4;
+        int wordOffset = sectionY * WORDS_PER_SECTION;
+
+        for (int i = 0; i < WORDS_PER_SECTION; i++) {
+            bits.words[wordOffset + i] = 0L;
+        }
+
+        // Air flags for the section plus one layer below and one above
+        boolean[] air = new boolean[ChunkSections.SECTION_SIZE + 2];
+
+        for (int z = baseZ; z < baseZ + ChunkSections.SECTION_SIZE; z++) {
+            for (int x = baseX; x < baseX + ChunkSections.SECTION_SIZE; x++) {
+                for (int layer = 0; layer < air.length; layer++) {
+                    int y = baseY - 1 + layer;
+                    // Positions outside the world never count as air
+                    air[layer] = y >= 0 && y <= ChunkSections.MAX_Y
+                            && accessor.getBlock(x, y, z) == BlockType.AIR;
+                }
+
+                for (int y = Math.max(baseY, MIN_SAFE_Y); y <= Math.min(baseY + 15, MAX_SAFE_Y); y++) {
+                    int layer = y - baseY + 1;
+                    if (!air[layer - 1] && air[layer] && air[layer + 1]) {
+                        int index = bitIndex(x, y, z);
+                        bits.words[wordOffset + (index >>> 6)] |= 1L << index;
+                    }
+                }
+            }
+        }
+
+        bits.validSections |= 1 << sectionY;
+    }
+
+    private ChunkBits bitsFor(WorldChunk chunk) {
+        synchronized (chunks) {
+            ChunkBits bits = chunks.get(chunk);
+            if (bits == null) {
+                bits = new ChunkBits();
+                chunks.put(chunk, bits);
+            }
+            return bits;
+        }
+    }
+
+    /** Position of a block within its section's 4096 bits. */
+    private static int bitIndex(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    /**
+     * Safe-position bits for all 16 sections of a chunk.
+     */
+    private static final class ChunkBits {
+        final long[] words = new long[ChunkSections.SECTION_COUNT * WORDS_PER_SECTION];
+        int validSections;
+    }
+}
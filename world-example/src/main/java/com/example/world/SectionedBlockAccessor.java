@@ -0,0 +1,79 @@
+package com.example.world;
+
+import com.hypixel.hytale.world.block.BlockType;
+
+/**
+ * Optional capability for a BlockAccessor whose storage is split into
+ * 16x16x16 vertical sections (for example palette-backed chunk storage).
+ *
+ * The plain BlockAccessor API only offers per-block reads and writes.
+ * When a chunk's accessor also implements this interface, ChunkModifier
+ * uses it to write whole sections in a single call (for example by
+ * replacing the section with a single-value palette) instead of making
+ * 4096 setBlock calls, and to skip or remap whole sections when
+ * replacing blocks. Accessors that don't implement it keep working
+ * through the per-block fallback.
+ *
+ * Whole-section block arrays hold 4096 entries indexed by
+ * (localY << 8) | (localZ << 4) | localX, with each coordinate 0-15.
+ *
+ * See: https://hytale-docs.dev/classes/com.hypixel.hytale.world.block.BlockAccessor.html
+ */
+public interface SectionedBlockAccessor {
+
+    /**
+     * Sets every block in a section to the same type.
+     *
+     * Palette-backed storage can count the blocks that change from the
+     * section's palette before replacing it.
+     *
+     * @param sectionY Section index within the chunk (block Y >> 4, 0-15)
+     * @param blockType The block type to fill the section with
+     * @return The number of blocks changed
+     */
+    int fillSection(int sectionY, BlockType blockType);
+
+    /**
+     * Checks whether a section contains at least one block of the given type.
+     *
+     * Palette-backed storage can answer this from the section's palette
+     * without looking at individual blocks.
+     *
+     * @param sectionY Section index within the chunk (block Y >> 4, 0-15)
+     * @param blockType The block type to look for
+     * @return true if the section may contain the block type
+     */
+    boolean sectionContains(int sectionY, BlockType blockType);
+
+    /**
+     * Replaces every block of one type with another within a section.
+     *
+     * Palette-backed storage can do this by remapping the palette entry
+     * instead of rewriting block indices.
+     *
+     * @param sectionY Section index within the chunk (block Y >> 4, 0-15)
+     * @param fromType The block type to replace
+     * @param toType The block type to replace with
+     * @return The number of blocks changed
+     */
+    int replaceInSection(int sectionY, BlockType fromType, BlockType toType);
+
+    /**
+     * Copies every block of a section into an array.
+     *
+     * @param sectionY Section index within the chunk (block Y >> 4, 0-15)
+     * @param into Receives the section's 4096 blocks, in (y, z, x) order
+     */
+    void readSection(int sectionY, BlockType[] into);
+
+    /**
+     * Replaces every block of a section from an array.
+     *
+     * Palette-backed storage can rebuild the section's palette and indices
+     * in one pass instead of updating them block by block.
+     *
+     * @param sectionY Section index within the chunk (block Y >> 4, 0-15)
+     * @param blocks The section's 4096 blocks, in (y, z, x) order
+     */
+    void writeSection(int sectionY, BlockType[] blocks);
+}
@@ -0,0 +1,141 @@
+package com.example.world;
+
+import com.example.common.ArgumentSchema;
+import com.example.common.LogTemplate;
+import com.example.common.MessageTemplate;
+import com.example.common.ParsedArgs;
+import com.example.common.TypedCommand;
+import com.hypixel.hytale.entity.player.Player;
+import com.hypixel.hytale.plugin.commands.CommandContext;
+import com.hypixel.hytale.world.World;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A command that places a whole list of blocks from a file.
+ *
+ * Usage: /setblock-batch <file>
+ * Example: /setblock-batch castle.txt
+ *
+ * The file lives in the batch directory (see {@link WorldExamplePlugin#getBatchDirectory()})
+ * and holds one "x y z blockType" line per block - see {@link BlockBatch}.
+ *
+ * Instead of one chunk lookup, save mark, chat message and log line per
+ * block, the file is read off the game thread, grouped by chunk and
+ * applied through the {@link EditScheduler} a few milliseconds at a time.
+ * Each changed chunk is marked for saving once, and the player gets one summary.
+ */
+public class SetBlockBatchCommand extends TypedCommand {
+
+    private static final ArgumentSchema SCHEMA = ArgumentSchema.builder()
+            .requiredString("file")
+            .build();
+    private static final int FILE = SCHEMA.indexOf("file");
+
+    private static final LogTemplate BATCH_APPLIED =
+            LogTemplate.info("{} applied batch {}: {} blocks in {} chunks, {} chunks not loaded");
+
+    private static final MessageTemplate BATCH_QUEUED = MessageTemplate.builder()
+            .text("Placing ", NamedTextColor.GREEN)
+            .slot(NamedTextColor.YELLOW)
+            .text(" blocks in ", NamedTextColor.GREEN)
+            .slot(NamedTextColor.YELLOW)
+            .text(" chunks...", NamedTextColor.GREEN)
+            .build();
+    private static final MessageTemplate BATCH_DONE = MessageTemplate.builder()
+            .text("Batch ", NamedTextColor.GREEN)
+            .slot(NamedTextColor.AQUA)
+            .text(" done: ", NamedTextColor.GREEN)
+            .slot(NamedTextColor.YELLOW)
+            .text(" blocks placed in ", NamedTextColor.GREEN)
+            .slot(NamedTextColor.YELLOW)
+            .text(" chunks, ", NamedTextColor.GREEN)
+            .slot(NamedTextColor.YELLOW)
+            .text(" chunks not loaded", NamedTextColor.GREEN)
+            .build();
+    private static final MessageTemplate BATCH_FILE_NOT_FOUND = MessageTemplate.builder()
+            .text("No batch file named ", NamedTextColor.RED)
+            .slot(NamedTextColor.RED)
+            .build();
+    private static final Component PLAYERS_ONLY = Component.text("This command can only be used by players!")
+            .color(NamedTextColor.RED);
+
+    private final WorldExamplePlugin plugin;
+
+    public SetBlockBatchCommand(WorldExamplePlugin plugin) {
+        super("setblock-batch", "Places every block listed in a batch file", SCHEMA);
+        this.plugin = plugin;
+    }
+
+    @Override
+    protected void execute(CommandContext context, ParsedArgs args) {
+        var sender = context.getSender();
+
+        // The batch is placed in the player's world
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage(PLAYERS_ONLY);
+            return;
+        }
+
+        // Only files inside the batch directory can be read
+        String fileName = args.getString(FILE);
+        Path directory = plugin.getBatchDirectory().toAbsolutePath().normalize();
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            sender.sendMessage(BATCH_FILE_NOT_FOUND.render(fileName));
+            return;
+        }
+
+        World world = player.getWorld();
+        BlockTypeResolver blockTypes = plugin.getBlockTypeResolver();
+        EditScheduler scheduler = plugin.getEditScheduler();
+
+        // Parse and sort off the game thread; the scheduler applies the result a little at a time
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return BlockBatch.read(file, blockTypes);
+            } catch (IOException e) {
+                throw new BatchFileException(e.getMessage());
+            }
+        }).thenCompose(batch -> {
+            sender.sendMessage(BATCH_QUEUED.render(batch.size(), batch.getChunkCount()));
+            return scheduler.submitBatch(world, batch).completion();
+        }).whenComplete((result, error) -> {
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                sender.sendMessage(Component.text("Failed to apply batch: " + cause.getMessage())
+                        .color(NamedTextColor.RED));
+                // A bad file or the plugin unloading mid-batch isn't a bug worth a stack trace
+                if (!(cause instanceof BatchFileException || cause instanceof CancellationException)) {
+                    plugin.getLogger().error("SetBlock batch error", cause);
+                }
+                return;
+            }
+
+            sender.sendMessage(BATCH_DONE.render(fileName, result.blocksChanged(),
+                    result.chunksModified(), result.chunksSkipped()));
+            plugin.getLogPipeline().begin(BATCH_APPLIED)
+                    .arg(player.getName()).arg(fileName).arg(result.blocksChanged())
+                    .arg(result.chunksModified()).arg(result.chunksSkipped())
+                    .end();
+        });
+    }
+
+    /**
+     * A malformed or unreadable batch file; reported to the player, not logged as an error.
+     */
+    private static final class BatchFileException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        BatchFileException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
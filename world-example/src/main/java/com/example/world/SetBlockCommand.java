@@ -1,6 +1,10 @@
 package com.example.world;
 
-import com.hypixel.hytale.plugin.commands.AbstractCommand;
+import com.example.common.LogTemplate;
+import com.example.common.ArgumentSchema;
+import com.example.common.MessageTemplate;
+import com.example.common.ParsedArgs;
+import com.example.common.TypedCommand;
 import com.hypixel.hytale.plugin.commands.CommandContext;
 import com.hypixel.hytale.entity.player.Player;
 import com.hypixel.hytale.world.Location;
@@ -11,6 +15,8 @@ import com.hypixel.hytale.world.block.BlockType;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 
+import java.util.List;
+
 /**
  * A command that places a block at specified coordinates.
  *
@@ -18,47 +24,98 @@ import net.kyori.adventure.text.format.NamedTextColor;
  * Example: /setblock 100 64 -50 stone
  *
  * This demonstrates:
- * - Accessing world chunks via World.getChunkAt()
+ * - Declaring typed arguments with an ArgumentSchema
+ * - Accessing world chunks via World.getChunkAt(), through a ChunkHandleCache
  * - Using BlockAccessor to read and modify blocks
- * - Converting block type strings to BlockType enums
+ * - Resolving block type names (and aliases) with a prebuilt BlockTypeResolver
  * - Marking chunks as needing saving
  * - Error handling for world operations
  *
  * See: https://hytale-docs.dev/classes/com.hypixel.hytale.world.chunk.WorldChunk.html
  * See: https://hytale-docs.dev/classes/com.hypixel.hytale.world.block.BlockAccessor.html
  */
-public class SetBlockCommand extends AbstractCommand {
+public class SetBlockCommand extends TypedCommand {
+
+    // Arguments are parsed once into primitives; the indexes are resolved here, not per call
+    private static final ArgumentSchema SCHEMA = ArgumentSchema.builder()
+            .requiredInt("x")
+            .requiredInt("y")
+            .requiredInt("z")
+            .requiredString("blockType")
+            .build();
+    private static final int X = SCHEMA.indexOf("x");
+    private static final int Y = SCHEMA.indexOf("y");
+    private static final int Z = SCHEMA.indexOf("z");
+    private static final int BLOCK_TYPE = SCHEMA.indexOf("blockType");
+
+    private static final LogTemplate BLOCK_SET = LogTemplate.info("{} set block at {}, {}, {} to {}");
+
+    // Replies are built once; only the dynamic values are filled in per call
+    private static final MessageTemplate BLOCK_CHANGED = MessageTemplate.builder()
+            .text("Block at ", NamedTextColor.GREEN)
+            .slot(NamedTextColor.YELLOW)
+            .text(", ", NamedTextColor.YELLOW)
+            .slot(NamedTextColor.YELLOW)
+            .text(", ", NamedTextColor.YELLOW)
+            .slot(NamedTextColor.YELLOW)
+            .text(" changed from ", NamedTextColor.GREEN)
+            .slot(NamedTextColor.AQUA)
+            .text(" to ", NamedTextColor.GREEN)
+            .slot(NamedTextColor.AQUA)
+            .build();
+    // Typos repeat, so these are cached by input (bounded, since the input is player-controlled)
+    private static final MessageTemplate UNKNOWN_BLOCK_TYPE = MessageTemplate.builder()
+            .text("Unknown block type: ", NamedTextColor.RED)
+            .slot(NamedTextColor.RED)
+            .text("\n", NamedTextColor.GRAY)
+            .slot(NamedTextColor.GRAY)
+            .cached(64)
+            .build();
+    private static final Component PLAYERS_ONLY = Component.text("This command can only be used by players!")
+            .color(NamedTextColor.RED);
+    private static final Component Y_OUT_OF_RANGE = Component.text("Y coordinate must be between 0 and 255!")
+            .color(NamedTextColor.RED);
+    private static final Component CHUNK_NOT_LOADED = Component.text("Chunk not loaded at those coordinates!")
+            .color(NamedTextColor.RED);
+    private static final Component INVALID_COORDINATES =
+            Component.text("Invalid coordinates! X, Y, Z must be integers.")
+                    .color(NamedTextColor.RED);
+    private static final String EXAMPLES = "Examples: stone, dirt, grass_block, oak_log";
+    private static final int MAX_SUGGESTIONS = 3;
 
     private final WorldExamplePlugin plugin;
 
     public SetBlockCommand(WorldExamplePlugin plugin) {
-        super("setblock", "Places a block at the specified coordinates");
+        // Registers x, y, z and blockType as required arguments
+        super("setblock", "Places a block at the specified coordinates", SCHEMA);
         this.plugin = plugin;
+    }
 
-        // Define required arguments: X, Y, Z coordinates and block type
-        withRequiredArg("x");
-        withRequiredArg("y");
-        withRequiredArg("z");
-        withRequiredArg("blockType");
+    @Override
+    protected void onInvalidArgument(CommandContext context, int index) {
+        if (index == BLOCK_TYPE) {
+            super.onInvalidArgument(context, index);
+        } else {
+            context.getSender().sendMessage(INVALID_COORDINATES);
+        }
     }
 
     @Override
-    public void execute(CommandContext context) {
+    protected void execute(CommandContext context, ParsedArgs args) {
         var sender = context.getSender();
 
         // This command requires a player to get the world context
         if (!(sender instanceof Player player)) {
-            sender.sendMessage(Component.text("This command can only be used by players!")
-                    .color(NamedTextColor.RED));
+            sender.sendMessage(PLAYERS_ONLY);
             return;
         }
 
         try {
-            // Parse coordinate arguments
-            int x = Integer.parseInt(context.getArgs().get("x"));
-            int y = Integer.parseInt(context.getArgs().get("y"));
-            int z = Integer.parseInt(context.getArgs().get("z"));
-            String blockTypeString = context.getArgs().get("blockType");
+            // Already parsed and validated against the schema
+            int x = args.getInt(X);
+            int y = args.getInt(Y);
+            int z = args.getInt(Z);
+            String blockTypeString = args.getString(BLOCK_TYPE);
 
             // Get the player's current world
             // World contains methods for accessing chunks and world data
@@ -67,33 +124,31 @@ public class SetBlockCommand extends AbstractCommand {
 
             // Validate Y coordinate (world height limits)
             if (y < 0 || y > 255) {
-                sender.sendMessage(Component.text("Y coordinate must be between 0 and 255!")
-                        .color(NamedTextColor.RED));
+                sender.sendMessage(Y_OUT_OF_RANGE);
                 return;
             }
 
-            // Convert block type string to BlockType enum
+            // Look up the block type by name or alias
             // BlockType represents all possible block types in the game
             // See: https://hytale-docs.dev/classes/com.hypixel.hytale.world.block.BlockType.html
-            BlockType blockType;
-            try {
-                blockType = BlockType.valueOf(blockTypeString.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                sender.sendMessage(Component.text("Unknown block type: " + blockTypeString)
-                        .color(NamedTextColor.RED)
-                        .append(Component.text("\nExamples: stone, dirt, grass_block, oak_log")
-                                .color(NamedTextColor.GRAY)));
+            BlockTypeResolver blockTypes = plugin.getBlockTypeResolver();
+            BlockType blockType = blockTypes.resolve(blockTypeString);
+            if (blockType == null) {
+                // The suggestions are only worked out the first time an input is seen
+                sender.sendMessage(UNKNOWN_BLOCK_TYPE.renderKeyed(blockTypeString,
+                        input -> new Object[] {input, suggestionHint(blockTypes, (String) input)}));
                 return;
             }
 
             // Get the chunk containing this block
             // Chunks are 16x16 vertical columns of blocks
+            // This writes to the chunk, so it asks the world rather than trusting a cached handle
+            // that may belong to a chunk unloaded since
             // See: https://hytale-docs.dev/classes/com.hypixel.hytale.world.chunk.WorldChunk.html
-            WorldChunk chunk = world.getChunkAt(x >> 4, z >> 4);  // Divide by 16 to get chunk coords
+            WorldChunk chunk = ChunkHandleCache.of(world).getCurrentChunk(x >> 4, z >> 4);  // Divide by 16 to get chunk coords
 
             if (chunk == null) {
-                sender.sendMessage(Component.text("Chunk not loaded at those coordinates!")
-                        .color(NamedTextColor.RED));
+                sender.sendMessage(CHUNK_NOT_LOADED);
                 return;
             }
 
@@ -102,39 +157,34 @@ public class SetBlockCommand extends AbstractCommand {
             // See: https://hytale-docs.dev/classes/com.hypixel.hytale.world.block.BlockAccessor.html
             BlockAccessor accessor = chunk.getBlockAccessor();
 
-            // Read the current block at this location
-            BlockType currentBlock = accessor.getBlock(x, y, z);
-
-            // Set the new block
-            // This modifies the world immediately
-            accessor.setBlock(x, y, z, blockType);
-
-            // Mark the chunk as needing to be saved
-            // This ensures changes are persisted to disk
-            chunk.markNeedsSaving();
+            // Queued edits and region edits may be writing this chunk from other threads,
+            // so read and write it under the chunk's lock
+            BlockType currentBlock;
+            synchronized (ChunkLocks.of(chunk)) {
+                // Read the current block at this location
+                currentBlock = accessor.getBlock(x, y, z);
+
+                // Nothing to write, save or resend if the block already has this type
+                if (currentBlock != blockType) {
+                    // Set the new block
+                    // This modifies the world immediately
+                    accessor.setBlock(x, y, z, blockType);
+
+                    // Keep the cached surface height and safe spots around this block current
+                    ChunkModifier.blocksWritten(chunk, x, y, z, x, y, z, blockType);
+
+                    // Mark the chunk as needing to be saved, recording the one section that changed
+                    // This ensures changes are persisted to disk
+                    ChunkModifier.markModified(chunk, 1 << (y >> 4));
+                }
+            }
 
             // Send success message
-            Component message = Component.text("Block at ")
-                    .color(NamedTextColor.GREEN)
-                    .append(Component.text(x + ", " + y + ", " + z)
-                            .color(NamedTextColor.YELLOW))
-                    .append(Component.text(" changed from ")
-                            .color(NamedTextColor.GREEN))
-                    .append(Component.text(currentBlock.name())
-                            .color(NamedTextColor.AQUA))
-                    .append(Component.text(" to ")
-                            .color(NamedTextColor.GREEN))
-                    .append(Component.text(blockType.name())
-                            .color(NamedTextColor.AQUA));
-
-            sender.sendMessage(message);
-
-            plugin.getLogger().info(player.getName() + " set block at " +
-                    x + ", " + y + ", " + z + " to " + blockType.name());
-
-        } catch (NumberFormatException e) {
-            sender.sendMessage(Component.text("Invalid coordinates! X, Y, Z must be integers.")
-                    .color(NamedTextColor.RED));
+            sender.sendMessage(BLOCK_CHANGED.render(x, y, z, currentBlock.name(), blockType.name()));
+
+            plugin.getLogPipeline().begin(BLOCK_SET)
+                    .arg(player.getName()).arg(x).arg(y).arg(z).arg(blockType.name())
+                    .end();
 
         } catch (Exception e) {
             sender.sendMessage(Component.text("Failed to set block: " + e.getMessage())
@@ -142,4 +192,13 @@ public class SetBlockCommand extends AbstractCommand {
             plugin.getLogger().error("SetBlock command error", e);
         }
     }
+
+    /**
+     * Builds the hint shown under an unknown block type: close matches if there
+     * are any, otherwise a few examples.
+     */
+    private static String suggestionHint(BlockTypeResolver blockTypes, String input) {
+        List<String> suggestions = blockTypes.suggest(input, MAX_SUGGESTIONS);
+        return suggestions.isEmpty() ? EXAMPLES : "Did you mean: " + String.join(", ", suggestions) + "?";
+    }
 }
@@ -1,8 +1,12 @@
 package com.example.world;
 
+import com.example.common.LogPipeline;
+import com.example.common.TickDriver;
 import com.hypixel.hytale.plugin.PluginBase;
 import com.hypixel.hytale.plugin.commands.CommandRegistry;
 
+import java.nio.file.Path;
+
 /**
  * Main plugin class for World Manipulation Example mod.
  *
@@ -18,19 +22,118 @@ import com.hypixel.hytale.plugin.commands.CommandRegistry;
  */
 public class WorldExamplePlugin extends PluginBase {
 
+    /** System property that overrides where /setblock-batch looks for files. */
+    public static final String BATCH_DIRECTORY_PROPERTY = "worldexample.batchDir";
+
+    private BlockTypeResolver blockTypes;
+    private RegionEditor regionEditor;
+    private EditScheduler editScheduler;
+    private TickDriver tickDriver;
+    private LogPipeline logPipeline;
+
     @Override
     public void setup() {
         getLogger().info("World Example mod is loading...");
 
-        // Register the /setblock command
+        // Commands log through a background pipeline instead of on the game thread
+        logPipeline = new LogPipeline(this, "WorldExample");
+
+        // Block names and aliases are indexed once, so commands resolve them without valueOf()
+        blockTypes = new BlockTypeResolver();
+
+        // Shared worker pool for edits that span many chunks
+        regionEditor = new RegionEditor();
+
+        // Large edits are queued and applied a few milliseconds at a time, every 50 ms
+        // This runs on its own thread, not the game thread; edits lock each chunk they write
+        editScheduler = new EditScheduler();
+        tickDriver = new TickDriver(this, "WorldExample-edits", editScheduler::tick);
+
+        // Register the /setblock and /setblock-batch commands
         CommandRegistry commandRegistry = this.commandRegistry;
         commandRegistry.registerCommand(new SetBlockCommand(this));
+        commandRegistry.registerCommand(new SetBlockBatchCommand(this));
 
-        getLogger().info("World Example mod loaded! Available commands: /setblock");
+        getLogger().info("World Example mod loaded! Available commands: /setblock, /setblock-batch");
     }
 
     @Override
     public void teardown() {
         getLogger().info("World Example mod unloading...");
+
+        // Wait for a running pass to finish, then fail the jobs that will never run
+        if (tickDriver != null) {
+            tickDriver.close();
+            tickDriver = null;
+        }
+        if (editScheduler != null) {
+            editScheduler.close();
+            editScheduler = null;
+        }
+        blockTypes = null;
+
+        if (regionEditor != null) {
+            regionEditor.close();
+            regionEditor = null;
+        }
+
+        // Don't keep cached data for chunks of a world we no longer edit
+        ChunkHandleCache.clearAll();
+        HeightmapCache.shared().clear();
+        SafeLocationIndex.shared().clear();
+
+        // Write out any queued log lines and stop the pipeline thread
+        if (logPipeline != null) {
+            logPipeline.close();
+            logPipeline = null;
+        }
+    }
+
+    /**
+     * Gets the pipeline commands use for their routine log lines.
+     *
+     * @return The log pipeline, or null if the plugin is not enabled
+     */
+    public LogPipeline getLogPipeline() {
+        return logPipeline;
+    }
+
+    /**
+     * Gets the resolver commands use to look up block names.
+     *
+     * @return The block type resolver, or null if the plugin is not enabled
+     */
+    public BlockTypeResolver getBlockTypeResolver() {
+        return blockTypes;
+    }
+
+    /**
+     * Gets the directory /setblock-batch reads batch files from.
+     *
+     * Defaults to mods/WorldExample/batches under the server's working
+     * directory; set the {@value #BATCH_DIRECTORY_PROPERTY} system property to change it.
+     *
+     * @return The batch directory
+     */
+    public Path getBatchDirectory() {
+        return Path.of(System.getProperty(BATCH_DIRECTORY_PROPERTY, "mods/WorldExample/batches"));
+    }
+
+    /**
+     * Gets the region editor used for multi-chunk edits.
+     *
+     * @return The region editor, or null if the plugin is not enabled
+     */
+    public RegionEditor getRegionEditor() {
+        return regionEditor;
+    }
+
+    /**
+     * Gets the scheduler used to spread large edits out over time.
+     *
+     * @return The edit scheduler, or null if the plugin is not enabled
+     */
+    public EditScheduler getEditScheduler() {
+        return editScheduler;
     }
 }